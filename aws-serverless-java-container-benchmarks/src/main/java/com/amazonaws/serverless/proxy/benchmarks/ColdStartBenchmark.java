@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of each framework: the time from the construction of the sample's Lambda handler to its
+ * first response. Every measurement runs in a fresh JVM, so class loading and framework initialization are included
+ * the same way they are in a new Lambda container. Spring and Spark can only be initialized once per JVM, do not add
+ * warmup iterations to this benchmark.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param
+    private PetStore framework;
+
+    private AwsProxyRequest request;
+    private Context lambdaContext;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        // in Lambda the event is deserialized by the runtime, so building it is not part of the measurement
+        request = PetStore.getPetRequest();
+        lambdaContext = new MockLambdaContext();
+    }
+
+
+    @Benchmark
+    public AwsProxyResponse firstRequest() {
+        return framework.newHandler().handleRequest(request, lambdaContext);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the pet store samples end-to-end, from the <code>AwsProxyRequest</code> received by the Lambda handler to the
+ * <code>AwsProxyResponse</code> it returns. Each benchmark reports throughput and the sampled latency distribution,
+ * including the p50, p99 and p99.9 percentiles. Run with the GC profiler to see the bytes allocated per request.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameworkOverheadBenchmark {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param
+    private PetStore framework;
+
+    private RequestHandler<AwsProxyRequest, AwsProxyResponse> handler;
+    private AwsProxyRequest getRequest;
+    private AwsProxyRequest postRequest;
+    private Context lambdaContext;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        handler = framework.newHandler();
+        getRequest = PetStore.getPetRequest();
+        postRequest = PetStore.postPetRequest();
+        lambdaContext = new MockLambdaContext();
+
+        // the first request initializes the lazily started frameworks, it also makes sure that the application
+        // routes both requests successfully before we start measuring
+        verify(getRequest);
+        verify(postRequest);
+    }
+
+
+    @Benchmark
+    public AwsProxyResponse getPet() {
+        return handler.handleRequest(getRequest, lambdaContext);
+    }
+
+
+    @Benchmark
+    public AwsProxyResponse postPet() {
+        return handler.handleRequest(postRequest, lambdaContext);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void verify(AwsProxyRequest request) {
+        AwsProxyResponse response = handler.handleRequest(request, lambdaContext);
+        if (response == null || response.getStatusCode() != 200) {
+            throw new IllegalStateException("The " + framework + " sample did not handle " + request.getHttpMethod() + " "
+                                            + request.getPath() + ": " + (response == null ? "no response" : response.getStatusCode()));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Payload corpus shared by the benchmarks. Each value builds an <code>AwsProxyRequest</code> that resembles what API
+ * Gateway actually sends to a function: the full set of CloudFront and forwarding headers, a couple of cookies, query
+ * string parameters and, for the POST payloads, a JSON or form body of a realistic size.
+ */
+public enum Payloads {
+    GET_SMALL {
+        @Override
+        public AwsProxyRequest build() {
+            return gatewayRequest("/pets/123", "GET")
+                    .queryString("limit", "20")
+                    .queryString("offset", "40")
+                    .queryString("sort", "name")
+                    .build();
+        }
+    },
+    POST_JSON_1KB {
+        @Override
+        public AwsProxyRequest build() {
+            return gatewayRequest("/pets", "POST").json().body(json(1024)).build();
+        }
+    },
+    POST_JSON_100KB {
+        @Override
+        public AwsProxyRequest build() {
+            return gatewayRequest("/pets", "POST").json().body(json(100 * 1024)).build();
+        }
+    },
+    POST_FORM {
+        @Override
+        public AwsProxyRequest build() {
+            AwsProxyRequestBuilder builder = gatewayRequest("/pets/search", "POST");
+            for (int i = 0; i < 20; i++) {
+                builder.form("field" + i, "value%20" + i);
+            }
+            return builder.build();
+        }
+    };
+
+
+    //-------------------------------------------------------------
+    // Methods - Abstract
+    //-------------------------------------------------------------
+
+    /**
+     * Builds a new request object for this payload. Requests are mutable so each benchmark state builds its own
+     * @return A populated <code>AwsProxyRequest</code>
+     */
+    public abstract AwsProxyRequest build();
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    /**
+     * Returns a request builder pre-populated with the headers and cookies API Gateway and CloudFront add to a request
+     * coming from a browser.
+     * @param path The request path
+     * @param method The HTTP method
+     * @return A request builder
+     */
+    public static AwsProxyRequestBuilder gatewayRequest(String path, String method) {
+        return new AwsProxyRequestBuilder(path, method)
+                .header("Accept", "application/json, text/plain, */*")
+                .header("Accept-Encoding", "gzip, deflate, br")
+                .header("Accept-Language", "en-US,en;q=0.9")
+                .header("CloudFront-Forwarded-Proto", "https")
+                .header("CloudFront-Is-Desktop-Viewer", "true")
+                .header("CloudFront-Is-Mobile-Viewer", "false")
+                .header("CloudFront-Is-SmartTV-Viewer", "false")
+                .header("CloudFront-Is-Tablet-Viewer", "false")
+                .header("CloudFront-Viewer-Country", "US")
+                .header("Host", "abcdef1234.execute-api.us-east-1.amazonaws.com")
+                .header("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_12_4) AppleWebKit/537.36 (KHTML, like Gecko)")
+                .header("Via", "2.0 a3650115c5e21e2b5d133ce84464bea3.cloudfront.net (CloudFront)")
+                .header("X-Amz-Cf-Id", "ZJx_3pjaEJaZf4UyTBXTeBtn3Ug1M5dYkNEjh5Rul-Ipv0-Ngp2pRw==")
+                .header("X-Amzn-Trace-Id", "Root=1-5917a1ab-4f3b1cd94c7a2ab5a2e1c3b4")
+                .header("X-Forwarded-For", "203.0.113.42, 54.182.230.76")
+                .header("X-Forwarded-Port", "443")
+                .header("X-Forwarded-Proto", "https")
+                .cookie("session", "d2ViLXNlc3Npb24tMTIzNDU2Nzg5MA")
+                .cookie("theme", "dark")
+                .cookie("locale", "en_US");
+    }
+
+
+    /**
+     * Generates a JSON document of approximately the given size, made of an array of small objects the way a typical
+     * API response or request body is.
+     * @param size The target size in bytes
+     * @return A JSON string
+     */
+    public static String json(int size) {
+        StringBuilder json = new StringBuilder(size + 128);
+        json.append("{\"items\":[");
+        int i = 0;
+        while (json.length() < size) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"").append(Integer.toHexString(0x10000 + i))
+                .append("\",\"name\":\"Pet number ").append(i)
+                .append("\",\"breed\":\"Beagle\",\"dateOfBirth\":1493596800000}");
+            i++;
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+
+    /**
+     * Generates a body of the given size and kind for the response-side benchmarks.
+     * @param kind One of <code>ascii</code>, <code>multibyte</code>, <code>emoji</code> or <code>binary</code>
+     * @param size The size of the body in bytes
+     * @return The body content
+     */
+    public static byte[] body(String kind, int size) {
+        switch (kind) {
+        case "ascii":
+            return truncate(json(size).getBytes(StandardCharsets.UTF_8), size);
+        case "multibyte":
+            return text("Caf\u00e9 na\u00efve \u65e5\u672c\u8a9e \u00fcber ", size);
+        case "emoji":
+            // a JSON list made of mostly ASCII with a 4-byte character in each item
+            return text("{\"id\":\"4f1a2f5c\",\"name\":\"Bailey \uD83D\uDC36\",\"breed\":\"Beagle\"},", size);
+        case "binary":
+            byte[] binary = new byte[size];
+            new Random(42).nextBytes(binary);
+            return binary;
+        default:
+            throw new IllegalArgumentException("Unknown body kind: " + kind);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private - Static
+    //-------------------------------------------------------------
+
+    private static byte[] text(String pattern, int size) {
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < size) {
+            text.append(pattern);
+        }
+        byte[] utf8 = text.toString().getBytes(StandardCharsets.UTF_8);
+        // back off to a character boundary so that the body stays valid UTF-8
+        int end = size;
+        while (end > 0 && end < utf8.length && (utf8[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return truncate(utf8, end);
+    }
+
+
+    private static byte[] truncate(byte[] input, int size) {
+        if (input.length == size) {
+            return input;
+        }
+        byte[] output = new byte[size];
+        System.arraycopy(input, 0, output, 0, size);
+        return output;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+
+/**
+ * The pet store sample applications from the <code>samples</code> folder, one per supported framework. All three
+ * samples expose the same API, which lets the benchmarks send identical workloads to each framework.
+ */
+public enum PetStore {
+    JERSEY {
+        @Override
+        public RequestHandler<AwsProxyRequest, AwsProxyResponse> newHandler() {
+            return new com.amazonaws.serverless.sample.jersey.LambdaHandler();
+        }
+    },
+    SPRING {
+        @Override
+        public RequestHandler<AwsProxyRequest, AwsProxyResponse> newHandler() {
+            return new com.amazonaws.serverless.sample.spring.LambdaHandler();
+        }
+    },
+    SPARK {
+        @Override
+        public RequestHandler<AwsProxyRequest, AwsProxyResponse> newHandler() {
+            return new com.amazonaws.serverless.sample.spark.LambdaHandler();
+        }
+    };
+
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final String PET_JSON = "{\"name\":\"Bailey\",\"breed\":\"Beagle\",\"dateOfBirth\":1493596800000}";
+
+
+    //-------------------------------------------------------------
+    // Methods - Abstract
+    //-------------------------------------------------------------
+
+    /**
+     * Creates a new instance of the sample's Lambda handler. Depending on the sample, the framework is initialized
+     * either here or when the handler receives its first request.
+     * @return The sample's <code>RequestHandler</code>
+     */
+    public abstract RequestHandler<AwsProxyRequest, AwsProxyResponse> newHandler();
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    public static AwsProxyRequest getPetRequest() {
+        return Payloads.gatewayRequest("/pets/4f1a2f5c", "GET").build();
+    }
+
+
+    public static AwsProxyRequest postPetRequest() {
+        return Payloads.gatewayRequest("/pets", "POST").json().body(PET_JSON).build();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequest;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the request body through the <code>ServletInputStream</code>, the way JSON parsers and entity
+ * providers consume it: in 8KB chunks, or one byte at a time as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBodyBenchmark {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final int CHUNK_SIZE = 8192;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param({ "1024", "1048576" })
+    private int size;
+
+    private AwsProxyHttpServletRequest servletRequest;
+    private byte[] buffer;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        servletRequest = new AwsProxyHttpServletRequest(
+                Payloads.gatewayRequest("/pets", "POST").json().body(Payloads.json(size)).build(), new MockLambdaContext(), null);
+        buffer = new byte[CHUNK_SIZE];
+    }
+
+
+    @Benchmark
+    public long readChunked()
+            throws IOException {
+        ServletInputStream input = servletRequest.getInputStream();
+        long total = 0;
+        int read;
+        while ((read = input.read(buffer, 0, buffer.length)) != -1) {
+            total += read;
+        }
+        return total;
+    }
+
+
+    @Benchmark
+    public long readSingleBytes()
+            throws IOException {
+        ServletInputStream input = servletRequest.getInputStream();
+        long total = 0;
+        while (input.read() != -1) {
+            total++;
+        }
+        return total;
+    }
+}
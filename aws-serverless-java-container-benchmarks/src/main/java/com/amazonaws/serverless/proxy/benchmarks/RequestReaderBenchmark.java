@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequest;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of an API Gateway proxy event into an <code>HttpServletRequest</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestReaderBenchmark {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param
+    private Payloads payload;
+
+    private AwsProxyRequest request;
+    private AwsProxyHttpServletRequestReader reader;
+    private Context lambdaContext;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        request = payload.build();
+        reader = new AwsProxyHttpServletRequestReader();
+        lambdaContext = new MockLambdaContext();
+    }
+
+
+    @Benchmark
+    public AwsProxyHttpServletRequest readRequest()
+            throws InvalidRequestEventException {
+        return reader.readRequest(request, null, lambdaContext);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
+import com.amazonaws.serverless.proxy.internal.ResponseLatch;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of a completed servlet response into the <code>AwsProxyResponse</code> returned to API
+ * Gateway, including the UTF-8 check and the base64 encoding of binary bodies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseWriterBenchmark {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param({ "ascii", "multibyte", "binary" })
+    private String kind;
+
+    @Param({ "1024", "102400" })
+    private int size;
+
+    private AwsHttpServletResponse containerResponse;
+    private AwsProxyHttpServletResponseWriter responseWriter;
+    private Context lambdaContext;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp()
+            throws IOException {
+        containerResponse = new AwsHttpServletResponse(new ResponseLatch());
+        containerResponse.setStatus(200);
+        containerResponse.setContentType("application/json");
+        containerResponse.addHeader("Cache-Control", "no-cache");
+        containerResponse.addHeader("X-Request-Id", "c6af9ac6-7b61-11e6-9a41-93e8deadbeef");
+        containerResponse.getOutputStream().write(Payloads.body(kind, size));
+        containerResponse.flushBuffer();
+
+        responseWriter = new AwsProxyHttpServletResponseWriter();
+        lambdaContext = new MockLambdaContext();
+    }
+
+
+    @Benchmark
+    public AwsProxyResponse writeResponse()
+            throws InvalidResponseObjectException {
+        return responseWriter.writeResponse(containerResponse, lambdaContext);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequest;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.servlet.http.Cookie;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the <code>AwsProxyHttpServletRequest</code> accessors a framework typically calls while routing and binding
+ * a request. The request object is built once, so these numbers only include the cost of the accessors themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServletRequestAccessorBenchmark {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param({ "GET_SMALL", "POST_FORM" })
+    private Payloads payload;
+
+    private AwsProxyHttpServletRequest servletRequest;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        servletRequest = new AwsProxyHttpServletRequest(payload.build(), new MockLambdaContext(), null);
+    }
+
+
+    @Benchmark
+    public void headers(Blackhole blackhole) {
+        blackhole.consume(servletRequest.getHeader("accept"));
+        blackhole.consume(servletRequest.getHeader("Content-Type"));
+        blackhole.consume(servletRequest.getHeader("X-Forwarded-For"));
+        blackhole.consume(servletRequest.getContentType());
+        Enumeration<String> names = servletRequest.getHeaderNames();
+        while (names.hasMoreElements()) {
+            blackhole.consume(servletRequest.getHeaders(names.nextElement()));
+        }
+    }
+
+
+    @Benchmark
+    public void parameters(Blackhole blackhole) {
+        blackhole.consume(servletRequest.getParameter("limit"));
+        blackhole.consume(servletRequest.getParameterValues("sort"));
+        blackhole.consume(servletRequest.getQueryString());
+    }
+
+
+    @Benchmark
+    public Map<String, String[]> parameterMap() {
+        return servletRequest.getParameterMap();
+    }
+
+
+    @Benchmark
+    public Cookie[] cookies() {
+        return servletRequest.getCookies();
+    }
+
+
+    @Benchmark
+    public void form(Blackhole blackhole) {
+        blackhole.consume(servletRequest.getParameter("field0"));
+        blackhole.consume(servletRequest.getParameter("field19"));
+        blackhole.consume(servletRequest.getParameterValues("field10"));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.ResponseLatch;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing a response body through <code>AwsHttpServletResponse</code>, from the first write to
+ * <code>flushBuffer()</code>, the way an application or framework writes it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServletResponseBenchmark {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final int CHUNK_SIZE = 8192;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param({ "1024", "102400", "1048576" })
+    private int size;
+
+    private byte[] body;
+    private String bodyString;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        body = Payloads.body("ascii", size);
+        bodyString = new String(body, StandardCharsets.UTF_8);
+    }
+
+
+    @Benchmark
+    public AwsHttpServletResponse outputStream()
+            throws IOException {
+        AwsHttpServletResponse response = newResponse();
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+        return response;
+    }
+
+
+    @Benchmark
+    public AwsHttpServletResponse outputStreamChunked()
+            throws IOException {
+        AwsHttpServletResponse response = newResponse();
+        ServletOutputStream output = response.getOutputStream();
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            output.write(body, offset, Math.min(CHUNK_SIZE, body.length - offset));
+        }
+        response.flushBuffer();
+        return response;
+    }
+
+
+    @Benchmark
+    public AwsHttpServletResponse writer()
+            throws IOException {
+        AwsHttpServletResponse response = newResponse();
+        PrintWriter writer = response.getWriter();
+        writer.write(bodyString);
+        writer.flush();
+        response.flushBuffer();
+        return response;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static AwsHttpServletResponse newResponse() {
+        AwsHttpServletResponse response = new AwsHttpServletResponse(new ResponseLatch());
+        response.setContentType("application/json");
+        return response;
+    }
+}
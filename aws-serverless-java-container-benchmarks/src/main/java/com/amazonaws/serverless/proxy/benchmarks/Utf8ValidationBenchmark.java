@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.ResponseWriter;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>ResponseWriter.isValidUtf8</code> in isolation over body sizes from a small API response to the
+ * largest payload API Gateway accepts. The <code>legacy</code> benchmark runs the byte-by-byte implementation the
+ * container used before the ASCII fast path was introduced, as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Utf8ValidationBenchmark {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Param({ "ascii", "multibyte", "emoji", "binary" })
+    private String kind;
+
+    @Param({ "1024", "102400", "5242880" })
+    private int size;
+
+    private byte[] body;
+    private Utf8Validator validator;
+
+
+    //-------------------------------------------------------------
+    // Methods - Benchmark
+    //-------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+        body = Payloads.body(kind, size);
+        validator = new Utf8Validator();
+    }
+
+
+    @Benchmark
+    public boolean isValidUtf8() {
+        return validator.isValidUtf8(body);
+    }
+
+
+    @Benchmark
+    public boolean legacy() {
+        return LegacyUtf8Validator.isValidUtf8(body);
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    /**
+     * Exposes the protected validation method of <code>ResponseWriter</code> to the benchmark
+     */
+    static class Utf8Validator extends ResponseWriter<Object, Object> {
+        @Override
+        protected Object writeResponse(Object containerResponse, Context lambdaContext) {
+            return null;
+        }
+
+
+        @Override
+        protected boolean isValidUtf8(byte[] input) {
+            return super.isValidUtf8(input);
+        }
+    }
+
+
+    /**
+     * Copy of the original byte-by-byte validation in <code>ResponseWriter</code>
+     */
+    static class LegacyUtf8Validator {
+        static boolean isValidUtf8(final byte[] input) {
+            int i = 0;
+            // Check for BOM
+            if (input.length >= 3 && (input[0] & 0xFF) == 0xEF
+                    && (input[1] & 0xFF) == 0xBB & (input[2] & 0xFF) == 0xBF) {
+                i = 3;
+            }
+
+            int end;
+            for (int j = input.length; i < j; ++i) {
+                int octet = input[i];
+                if ((octet & 0x80) == 0) {
+                    continue; // ASCII
+                }
+
+                // Check for UTF-8 leading byte
+                if ((octet & 0xE0) == 0xC0) {
+                    end = i + 1;
+                } else if ((octet & 0xF0) == 0xE0) {
+                    end = i + 2;
+                } else if ((octet & 0xF8) == 0xF0) {
+                    end = i + 3;
+                } else {
+                    // Java only supports BMP so 3 is max
+                    return false;
+                }
+
+                while (i < end) {
+                    i++;
+                    octet = input[i];
+                    if ((octet & 0xC0) != 0x80) {
+                        // Not a valid trailing byte
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
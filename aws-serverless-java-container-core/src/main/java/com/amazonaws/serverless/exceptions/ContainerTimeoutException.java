@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.exceptions;
+
+import com.amazonaws.serverless.proxy.internal.ContainerMetrics;
+
+/**
+ * This exception is thrown by the <code>LambdaContainerHandler</code> when the container does not produce a response
+ * before the Lambda function's deadline, minus the configured safety margin. The default <code>ExceptionHandler</code>
+ * returns a 504 status code for this exception.
+ *
+ * @see com.amazonaws.serverless.proxy.internal.LambdaContainerHandler#setResponseTimeoutMargin(long)
+ */
+public class ContainerTimeoutException extends Exception {
+    private final ContainerMetrics.Phase phase;
+
+    public ContainerTimeoutException(String message, ContainerMetrics.Phase phase) {
+        super(message);
+        this.phase = phase;
+    }
+
+    /**
+     * The phase of the proxy method that did not complete in time
+     * @return The stalled phase
+     */
+    public ContainerMetrics.Phase getPhase() {
+        return phase;
+    }
+}
@@ -12,6 +12,7 @@
  */
 package com.amazonaws.serverless.proxy.internal;
 
+import com.amazonaws.serverless.exceptions.ContainerTimeoutException;
 import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.internal.model.ErrorModel;
@@ -29,8 +30,9 @@ import java.util.Map;
 /**
  * Default implementation of the <code>ExceptionHandler</code> object that returns AwsProxyResponse objects.
  *
- * Returns application/json messages with a status code of 500 when the RequestReader failed to read the incoming event.
- * For all other exceptions returns a 502. Responses are populated with a JSON object containing a message property.
+ * Returns application/json messages with a status code of 500 when the RequestReader failed to read the incoming event
+ * and 504 when the container did not produce a response before the function's deadline. For all other exceptions
+ * returns a 502. Responses are populated with a JSON object containing a message property.
  *
  * @see com.amazonaws.serverless.proxy.internal.ExceptionHandler
  */
@@ -70,9 +72,12 @@ public class AwsProxyExceptionHandler
     @Override
     public AwsProxyResponse handle(Throwable ex) {
         if (ex instanceof InvalidRequestEventException) {
-            return new AwsProxyResponse(500, headers, getErrorJson(INTERNAL_SERVER_ERROR));
+            return new AwsProxyResponse(500, new HashMap<>(headers), getErrorJson(INTERNAL_SERVER_ERROR));
+        } else if (ex instanceof ContainerTimeoutException) {
+            return new AwsProxyResponse(504, new HashMap<>(headers), getErrorJson(GATEWAY_TIMEOUT_ERROR));
         } else {
-            return new AwsProxyResponse(502, headers, getErrorJson(GATEWAY_TIMEOUT_ERROR));
+            // each response gets its own copy of the headers, response writers and caches may modify them
+            return new AwsProxyResponse(502, new HashMap<>(headers), getErrorJson(GATEWAY_TIMEOUT_ERROR));
         }
     }
 
@@ -0,0 +1,482 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory <code>ResponseCache</code> for API Gateway proxy events. Only <code>GET</code> requests are served from
+ * the cache. Responses are stored when they have a 200 status code and a <code>Cache-Control</code> header with a
+ * positive <code>s-maxage</code> or <code>max-age</code> directive, and are returned until that lifetime expires.
+ * Responses marked <code>private</code>, <code>no-store</code> or <code>no-cache</code>, responses that set cookies
+ * and responses with <code>Vary: *</code> are never stored.
+ *
+ * Entries are keyed on the HTTP method, path and query string parameters, plus the values of the request headers
+ * listed in the response's <code>Vary</code> header. The cache key does not include the caller's identity: responses
+ * that depend on the authorizer context must be marked <code>private</code> by the application. Requests carrying an
+ * <code>Authorization</code> header are only stored when the response is explicitly <code>public</code> or declares
+ * an <code>s-maxage</code>.
+ *
+ * Requests with <code>Cache-Control: no-cache</code>, <code>no-store</code> or with conditional headers such as
+ * <code>If-None-Match</code> bypass the lookup and are always dispatched to the container.
+ *
+ * The cache stores a copy of each response and every hit returns a new copy, so callers can add headers to the
+ * responses they receive without changing the stored entry. Hits carry an <code>Age</code> header with the number of
+ * seconds since the response was stored, so that downstream caches do not keep it longer than its lifetime.
+ *
+ * The cache is bounded by the total size of the stored bodies and headers, measured in characters. When the limit is
+ * exceeded the least recently used paths are evicted first.
+ */
+public class AwsProxyResponseCache
+        implements ResponseCache<AwsProxyRequest, AwsProxyResponse> {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The default maximum size of the cache, counted as the number of characters in the stored bodies and headers
+     */
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+    private static final String METHOD_GET = "GET";
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_PRAGMA = "Pragma";
+    private static final String HEADER_VARY = "Vary";
+    private static final String HEADER_SET_COOKIE = "Set-Cookie";
+    private static final String HEADER_AUTHORIZATION = "Authorization";
+    private static final String HEADER_AGE = "Age";
+    private static final String[] CONDITIONAL_HEADERS = { "If-None-Match", "If-Modified-Since", "If-Match", "If-Unmodified-Since", "If-Range" };
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final LinkedHashMap<String, Variants> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> excludedRoutes = Collections.synchronizedSet(new HashSet<>());
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private long currentSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+
+    //-------------------------------------------------------------
+    // Implementation - ResponseCache
+    //-------------------------------------------------------------
+
+    @Override
+    public AwsProxyResponse get(AwsProxyRequest request) {
+        if (!isCacheableRequest(request) || !isLookupAllowed(request)) {
+            return null;
+        }
+
+        String baseKey = getBaseKey(request);
+        synchronized (entries) {
+            Variants variants = entries.get(baseKey);
+            if (variants != null) {
+                String variantKey = getVariantKey(request, variants.varyHeaders);
+                Entry entry = variants.responses.get(variantKey);
+                long now = currentTimeMillis();
+                if (entry != null && entry.expiresAtMillis > now) {
+                    hitCount.incrementAndGet();
+                    AwsProxyResponse response = copyResponse(entry.response);
+                    response.getHeaders().put(HEADER_AGE, Long.toString(TimeUnit.MILLISECONDS.toSeconds(now - entry.storedAtMillis)));
+                    return response;
+                }
+                if (entry != null) {
+                    variants.responses.remove(variantKey);
+                    currentSize -= entry.size;
+                    if (variants.responses.isEmpty()) {
+                        entries.remove(baseKey);
+                    }
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+
+    @Override
+    public void put(AwsProxyRequest request, AwsProxyResponse response) {
+        if (response == null || response.getStatusCode() != 200 || !isCacheableRequest(request)) {
+            return;
+        }
+
+        Map<String, String> headers = response.getHeaders();
+        if (headers == null || getHeader(headers, HEADER_SET_COOKIE) != null) {
+            return;
+        }
+        long maxAgeSeconds = getMaxAgeSeconds(getHeader(headers, HEADER_CACHE_CONTROL),
+                                              getHeader(request.getHeaders(), HEADER_AUTHORIZATION) != null);
+        if (maxAgeSeconds <= 0) {
+            return;
+        }
+        List<String> varyHeaders = parseVary(getHeader(headers, HEADER_VARY));
+        if (varyHeaders == null) {
+            return;
+        }
+
+        long now = currentTimeMillis();
+        Entry entry = new Entry(copyResponse(response), now, now + TimeUnit.SECONDS.toMillis(maxAgeSeconds));
+        if (entry.size > maxSize) {
+            return;
+        }
+
+        String baseKey = getBaseKey(request);
+        synchronized (entries) {
+            Variants variants = entries.get(baseKey);
+            if (variants == null || !variants.varyHeaders.equals(varyHeaders)) {
+                // the application changed its Vary header, the stored variants are keyed on the old header values
+                if (variants != null) {
+                    currentSize -= variants.size();
+                }
+                variants = new Variants(varyHeaders);
+                entries.put(baseKey, variants);
+            }
+
+            Entry previous = variants.responses.put(getVariantKey(request, varyHeaders), entry);
+            if (previous != null) {
+                currentSize -= previous.size;
+            }
+            currentSize += entry.size;
+            evict();
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Excludes a route from the cache. Requests are matched against both the API Gateway resource, for example
+     * <code>/pets/{petId}</code>, and the request path.
+     * @param route The resource or path that should always be dispatched to the container
+     */
+    public void excludeRoute(String route) {
+        excludedRoutes.add(route);
+    }
+
+
+    /**
+     * Removes all stored responses. The hit and miss counters are not reset.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            currentSize = 0;
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Sets the maximum size of the cache. The size is counted as the number of characters in the stored bodies and
+     * headers. The default value is {@value #DEFAULT_MAX_SIZE}.
+     * @param maxSize The maximum cache size
+     */
+    public void setMaxSize(long maxSize) {
+        synchronized (entries) {
+            this.maxSize = maxSize;
+            evict();
+        }
+    }
+
+
+    /**
+     * The number of requests that were answered from the cache
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+
+    /**
+     * The number of cacheable requests that had to be dispatched to the container
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+
+    /**
+     * The number of paths that were evicted to respect the maximum size of the cache
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+
+    /**
+     * The current size of the cache, counted as the number of characters in the stored bodies and headers
+     * @return The cache size
+     */
+    public long getSize() {
+        synchronized (entries) {
+            return currentSize;
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void evict() {
+        Iterator<Variants> iterator = entries.values().iterator();
+        while (currentSize > maxSize && iterator.hasNext()) {
+            currentSize -= iterator.next().size();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+
+    private boolean isCacheableRequest(AwsProxyRequest request) {
+        if (!METHOD_GET.equalsIgnoreCase(request.getHttpMethod())) {
+            return false;
+        }
+        return !excludedRoutes.contains(request.getResource()) && !excludedRoutes.contains(request.getPath());
+    }
+
+
+    private boolean isLookupAllowed(AwsProxyRequest request) {
+        Map<String, String> headers = request.getHeaders();
+        if (headers == null) {
+            return true;
+        }
+
+        for (String header : CONDITIONAL_HEADERS) {
+            if (getHeader(headers, header) != null) {
+                return false;
+            }
+        }
+
+        String cacheControl = getHeader(headers, HEADER_CACHE_CONTROL);
+        if (cacheControl != null) {
+            for (String directive : cacheControl.split(",")) {
+                String name = directive.replace(" ", "").toLowerCase(Locale.ENGLISH);
+                if (name.equals("no-cache") || name.equals("no-store") || name.equals("max-age=0")) {
+                    return false;
+                }
+            }
+        }
+        String pragma = getHeader(headers, HEADER_PRAGMA);
+        return pragma == null || !pragma.toLowerCase(Locale.ENGLISH).contains("no-cache");
+    }
+
+
+    /**
+     * Parses the lifetime of a response from its <code>Cache-Control</code> header.
+     * @return The lifetime in seconds, 0 if the response must not be stored
+     */
+    private static long getMaxAgeSeconds(String cacheControl, boolean authorized) {
+        if (cacheControl == null) {
+            return 0;
+        }
+
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        boolean isPublic = false;
+        for (String directive : cacheControl.split(",")) {
+            String[] parts = directive.trim().split("=", 2);
+            String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            switch (name) {
+            case "private":
+            case "no-store":
+            case "no-cache":
+                return 0;
+            case "public":
+                isPublic = true;
+                break;
+            case "max-age":
+                maxAge = parseSeconds(parts);
+                break;
+            case "s-maxage":
+                sharedMaxAge = parseSeconds(parts);
+                break;
+            default:
+                break;
+            }
+        }
+
+        if (authorized && !isPublic && sharedMaxAge < 0) {
+            return 0;
+        }
+        return Math.max(sharedMaxAge >= 0 ? sharedMaxAge : maxAge, 0);
+    }
+
+
+    private static long parseSeconds(String[] directive) {
+        if (directive.length < 2) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(directive[1].trim().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * @return The lower-case, sorted header names, null if the response varies on <code>*</code>
+     */
+    private static List<String> parseVary(String vary) {
+        List<String> names = new ArrayList<>();
+        if (vary == null) {
+            return names;
+        }
+
+        for (String name : vary.split(",")) {
+            String trimmed = name.trim().toLowerCase(Locale.ENGLISH);
+            if (trimmed.equals("*")) {
+                return null;
+            }
+            if (!trimmed.isEmpty() && !names.contains(trimmed)) {
+                names.add(trimmed);
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+
+    private static String getBaseKey(AwsProxyRequest request) {
+        StringBuilder key = new StringBuilder(METHOD_GET).append(' ').append(request.getPath());
+        if (request.getQueryStringParameters() != null) {
+            // API Gateway does not guarantee the order of the parameters
+            for (Map.Entry<String, String> parameter : new TreeMap<>(request.getQueryStringParameters()).entrySet()) {
+                key.append('\n').append(parameter.getKey()).append('=').append(parameter.getValue());
+            }
+        }
+        return key.toString();
+    }
+
+
+    private static String getVariantKey(AwsProxyRequest request, List<String> varyHeaders) {
+        StringBuilder key = new StringBuilder();
+        for (String name : varyHeaders) {
+            String value = getHeader(request.getHeaders(), name);
+            key.append(name).append(':').append(value == null ? "" : value.trim()).append('\n');
+        }
+        return key.toString();
+    }
+
+
+    /**
+     * Copies a response with its own headers map. The body string is immutable and shared.
+     */
+    private static AwsProxyResponse copyResponse(AwsProxyResponse response) {
+        AwsProxyResponse copy = new AwsProxyResponse(response.getStatusCode(), new HashMap<>(response.getHeaders()), response.getBody());
+        copy.setBase64Encoded(response.isBase64Encoded());
+        return copy;
+    }
+
+
+    private static String getHeader(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    /**
+     * The stored responses for a method, path and query string, keyed on the values of the request headers named by
+     * the response's <code>Vary</code> header
+     */
+    private static class Variants {
+        private final List<String> varyHeaders;
+        private final Map<String, Entry> responses = new HashMap<>();
+
+        private Variants(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+
+        private long size() {
+            long size = 0;
+            for (Entry entry : responses.values()) {
+                size += entry.size;
+            }
+            return size;
+        }
+    }
+
+
+    private static class Entry {
+        private final AwsProxyResponse response;
+        private final long storedAtMillis;
+        private final long expiresAtMillis;
+        private final long size;
+
+        private Entry(AwsProxyResponse response, long storedAtMillis, long expiresAtMillis) {
+            this.response = response;
+            this.storedAtMillis = storedAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+
+            long responseSize = response.getBody() == null ? 0 : response.getBody().length();
+            for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                responseSize += header.getKey().length() + (header.getValue() == null ? 0 : header.getValue().length());
+            }
+            this.size = responseSize;
+        }
+    }
+}
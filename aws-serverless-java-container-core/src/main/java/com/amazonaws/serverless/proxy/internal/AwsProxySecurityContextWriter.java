@@ -21,6 +21,11 @@ import javax.ws.rs.core.SecurityContext;
 /**
  * Default impolementation of <code>SecurityContextWriter</code>. Creates a SecurityContext object based on an API Gateway
  * event and the Lambda context. This returns the default <code>AwsProxySecurityContext</code> instance.
+ *
+ * A single instance can be used by concurrent invocations of the container handler. The security context for a request
+ * is available from the container request object. For the deprecated <code>getCurrentContext</code> method, the writer
+ * also keeps the context on the thread that received the request until the container handler has produced the
+ * response; it does not keep any state between requests.
  */
 public class AwsProxySecurityContextWriter implements SecurityContextWriter<AwsProxyRequest> {
 
@@ -28,7 +33,7 @@ public class AwsProxySecurityContextWriter implements SecurityContextWriter<AwsP
     // Variables - Private - Static
     //-------------------------------------------------------------
 
-    private static AwsProxySecurityContext currentContext;
+    private static final ThreadLocal<AwsProxySecurityContext> currentContext = new ThreadLocal<>();
 
 
     //-------------------------------------------------------------
@@ -36,9 +41,17 @@ public class AwsProxySecurityContextWriter implements SecurityContextWriter<AwsP
     //-------------------------------------------------------------
 
     public SecurityContext writeSecurityContext(AwsProxyRequest event, Context lambdaContext) {
-        currentContext = new AwsProxySecurityContext(lambdaContext, event);
+        AwsProxySecurityContext securityContext = new AwsProxySecurityContext(lambdaContext, event);
+        currentContext.set(securityContext);
+
+        return securityContext;
+    }
+
 
-        return currentContext;
+    @Override
+    public void releaseSecurityContext(SecurityContext securityContext) {
+        // worker threads outlive the request, they must not keep the event and its authorizer claims
+        currentContext.remove();
     }
 
 
@@ -46,7 +59,15 @@ public class AwsProxySecurityContextWriter implements SecurityContextWriter<AwsP
     // Methods - Getter/Setter
     //-------------------------------------------------------------
 
+    /**
+     * Returns the security context of the request the calling thread is handling.
+     * @return The security context, null if the calling thread is not handling a request
+     * @deprecated Frameworks may handle a request on a different thread than the one it was received on. Read the
+     *             security context from the container request instead, for example with
+     *             <code>HttpServletRequest.getUserPrincipal()</code> or <code>ContainerRequest.getSecurityContext()</code>
+     */
+    @Deprecated
     public static AwsProxySecurityContext getCurrentContext() {
-        return currentContext;
+        return currentContext.get();
     }
 }
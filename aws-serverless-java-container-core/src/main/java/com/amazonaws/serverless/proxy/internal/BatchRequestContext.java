@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Lambda context passed to each request of a batch by <code>LambdaContainerHandler.proxyBatch</code>. The context
+ * delegates to the function's context, its remaining time is the lower of the function's remaining time and the
+ * request's own budget, measured from the moment the context is created.
+ */
+class BatchRequestContext implements Context {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final Context context;
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * @param context The Lambda context of the batch invocation
+     * @param budgetMillis The time each request is allowed to run, values lower than 1 only apply the function's
+     *                     deadline
+     */
+    BatchRequestContext(Context context, long budgetMillis) {
+        this.context = context;
+        this.bounded = budgetMillis > 0;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(budgetMillis, 0));
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - Context
+    //-------------------------------------------------------------
+
+    @Override
+    public String getAwsRequestId() {
+        return context.getAwsRequestId();
+    }
+
+
+    @Override
+    public String getLogGroupName() {
+        return context.getLogGroupName();
+    }
+
+
+    @Override
+    public String getLogStreamName() {
+        return context.getLogStreamName();
+    }
+
+
+    @Override
+    public String getFunctionName() {
+        return context.getFunctionName();
+    }
+
+
+    @Override
+    public String getFunctionVersion() {
+        return context.getFunctionVersion();
+    }
+
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return context.getInvokedFunctionArn();
+    }
+
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return context.getIdentity();
+    }
+
+
+    @Override
+    public ClientContext getClientContext() {
+        return context.getClientContext();
+    }
+
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        int remainingMillis = context.getRemainingTimeInMillis();
+        if (!bounded) {
+            return remainingMillis;
+        }
+        long budgetMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        return (int) Math.max(Math.min(remainingMillis, budgetMillis), 0);
+    }
+
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return context.getMemoryLimitInMB();
+    }
+
+
+    @Override
+    public LambdaLogger getLogger() {
+        return context.getLogger();
+    }
+}
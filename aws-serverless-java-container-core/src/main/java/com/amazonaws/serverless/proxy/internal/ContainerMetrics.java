@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+/**
+ * Timings and sizes collected by the <code>LambdaContainerHandler</code> while proxying a single request. Phase
+ * durations are measured in nanoseconds with <code>System.nanoTime()</code>. Phases that were not reached because of an
+ * exception report a duration of 0.
+ *
+ * @see ContainerMetricsListener
+ */
+public class ContainerMetrics {
+
+    /**
+     * The phases of the <code>proxy</code> method, in the order they are executed.
+     */
+    public enum Phase {
+        /** <code>SecurityContextWriter.writeSecurityContext</code> */
+        SECURITY_CONTEXT,
+        /** <code>RequestReader.readRequest</code> */
+        READ_REQUEST,
+        /** The framework and application code, <code>LambdaContainerHandler.handleRequest</code> */
+        HANDLE_REQUEST,
+        /** Waiting for the container to signal that the response has been written */
+        RESPONSE_WAIT,
+        /** <code>ResponseWriter.writeResponse</code> */
+        WRITE_RESPONSE
+    }
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final long startNanos;
+    private long lastMarkNanos;
+    private long totalNanos;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private String routeKey;
+    private long requestBytes = -1;
+    private long responseBytes = -1;
+    private Throwable exception;
+    private boolean cacheHit;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    ContainerMetrics() {
+        startNanos = System.nanoTime();
+        lastMarkNanos = startNanos;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * The time spent in the given phase
+     * @param phase The proxy phase
+     * @return The duration in nanoseconds, 0 if the phase was not executed
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+
+    /**
+     * The time between the start of the <code>proxy</code> method and the moment the response object was produced
+     * @return The total duration in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+
+    /**
+     * The time spent by the container itself, excluding the application time in the <code>HANDLE_REQUEST</code>
+     * phase.
+     * @return The container overhead in nanoseconds
+     */
+    public long getContainerOverheadNanos() {
+        return totalNanos - getPhaseNanos(Phase.HANDLE_REQUEST);
+    }
+
+
+    /**
+     * The route key for the request. For <code>AwsProxyRequest</code> events this is the API Gateway resource, for
+     * example <code>/pets/{petId}</code>
+     * @return The route key, null if the request type does not declare one
+     */
+    public String getRouteKey() {
+        return routeKey;
+    }
+
+
+    /**
+     * The size of the request body in bytes, as received from API Gateway.
+     * @return The body size, -1 if it cannot be determined for the request type
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+
+    /**
+     * The size of the response body in bytes, as returned to API Gateway.
+     * @return The body size, -1 if it cannot be determined for the response type
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+
+    /**
+     * The exception that was handled by the <code>ExceptionHandler</code> for this request.
+     * @return The exception, null if the request completed normally
+     */
+    public Throwable getException() {
+        return exception;
+    }
+
+
+    /**
+     * Whether the response was returned by the <code>ResponseCache</code>. Cached responses skip all of the proxy
+     * phases, which report a duration of 0.
+     * @return true if the request was answered from the cache
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    void endPhase(Phase phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] = now - lastMarkNanos;
+        lastMarkNanos = now;
+    }
+
+
+    void complete() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+
+    void setRouteKey(String routeKey) {
+        this.routeKey = routeKey;
+    }
+
+
+    void setRequestBytes(long requestBytes) {
+        this.requestBytes = requestBytes;
+    }
+
+
+    void setResponseBytes(long responseBytes) {
+        this.responseBytes = responseBytes;
+    }
+
+
+    void setException(Throwable exception) {
+        this.exception = exception;
+    }
+
+
+    void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+/**
+ * Implementations of this interface receive timing information for each request proxied by a
+ * <code>LambdaContainerHandler</code>. Listeners are registered with the <code>setMetricsListener</code> method of the
+ * container handler. When no listener is registered the container handler does not collect any timing data.
+ *
+ * The listener is called synchronously on the thread that handled the request, after the response object has been
+ * produced. Implementations should be cheap, for example by recording the values in a histogram or queueing them for
+ * a later flush.
+ *
+ * @see ContainerMetrics
+ * @see LambdaContainerHandler#setMetricsListener(ContainerMetricsListener)
+ */
+public interface ContainerMetricsListener {
+    /**
+     * Called by the container handler once the response for a request has been produced, both for successful requests
+     * and for requests that were answered by the <code>ExceptionHandler</code>.
+     * @param metrics The timings and sizes collected for the request
+     */
+    void onRequestComplete(ContainerMetrics metrics);
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+
+/**
+ * A route exposed by the application running in the container, as discovered by
+ * <code>LambdaContainerHandler.getRoutes()</code>. The path is the framework's path template, for example
+ * <code>/pets/{petId}</code> for Jersey and Spring or <code>/pets/:petId</code> for Spark.
+ */
+public class ContainerRoute {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The value used in place of path parameters and wildcards by <code>getSamplePath()</code>
+     */
+    public static final String SAMPLE_PATH_PARAMETER = "1";
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final String httpMethod;
+    private final String path;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    public ContainerRoute(String httpMethod, String path) {
+        this.httpMethod = httpMethod.toUpperCase();
+        this.path = path.startsWith("/") ? path : "/" + path;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Returns a concrete path that matches the route template. Path parameters, with or without a regular expression,
+     * and wildcard segments are replaced by {@value #SAMPLE_PATH_PARAMETER}.
+     * @return The path of a request that can be routed to this route
+     */
+    public String getSamplePath() {
+        StringBuilder samplePath = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            samplePath.append('/');
+            if (segment.startsWith(":") || segment.startsWith("*")) {
+                samplePath.append(SAMPLE_PATH_PARAMETER);
+            } else {
+                appendSampleSegment(samplePath, segment);
+            }
+        }
+        return samplePath.length() == 0 ? "/" : samplePath.toString();
+    }
+
+
+    @Override
+    public String toString() {
+        return httpMethod + " " + path;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+
+    public String getPath() {
+        return path;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static void appendSampleSegment(StringBuilder samplePath, String segment) {
+        // template variables can contain a regular expression with its own braces, for example {id: [0-9]{3}}
+        int depth = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '{') {
+                if (depth++ == 0) {
+                    samplePath.append(SAMPLE_PATH_PARAMETER);
+                }
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (depth == 0) {
+                samplePath.append(c);
+            }
+        }
+    }
+}
@@ -13,11 +13,39 @@
 package com.amazonaws.serverless.proxy.internal;
 
 
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.exceptions.ContainerTimeoutException;
+import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
 import com.amazonaws.services.lambda.runtime.Context;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 import javax.ws.rs.core.SecurityContext;
 
-import java.util.concurrent.CountDownLatch;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -30,6 +58,16 @@ import java.util.concurrent.CountDownLatch;
  */
 public abstract class LambdaContainerHandler<RequestType, ResponseType, ContainerRequestType, ContainerResponseType> {
 
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The default time, in milliseconds, reserved before the Lambda function's deadline to return a timeout response
+     */
+    public static final long DEFAULT_RESPONSE_TIMEOUT_MARGIN_MILLIS = 500;
+
+
     //-------------------------------------------------------------
     // Variables - Private
     //-------------------------------------------------------------
@@ -38,6 +76,32 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
     private ResponseWriter<ContainerResponseType, ResponseType> responseWriter;
     private SecurityContextWriter<RequestType> securityContextWriter;
     private ExceptionHandler<ResponseType> exceptionHandler;
+    private ContainerMetricsListener metricsListener;
+    private ResponseCache<RequestType, ResponseType> responseCache;
+    private final ResponseBufferPool responseBufferPool = new ResponseBufferPool();
+    private long responseTimeoutMarginMillis = DEFAULT_RESPONSE_TIMEOUT_MARGIN_MILLIS;
+    private int batchParallelism = Runtime.getRuntime().availableProcessors();
+    private long batchRequestTimeoutMillis;
+
+    // lazily created by the first proxyBatch call, the worker threads are daemons and never stop the JVM from exiting
+    private ExecutorService batchExecutor;
+
+    private Collection<RequestType> checkpointWarmupRequests;
+    private boolean checkpointWarmupRoutes;
+
+    // each handler thread re-uses its latch for as long as responses complete in time
+    private final ThreadLocal<ResponseLatch> responseLatch = ThreadLocal.withInitial(ResponseLatch::new);
+
+    // lazily initialized by the first proxyStream call and re-used for all subsequent events
+    private ObjectReader requestObjectReader;
+    private ObjectWriter responseObjectWriter;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private - Static
+    //-------------------------------------------------------------
+
+    private static ObjectMapper objectMapper = createObjectMapper();
 
 
     //-------------------------------------------------------------
@@ -59,7 +123,15 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
     // Methods - Abstract
     //-------------------------------------------------------------
 
-    protected abstract ContainerResponseType getContainerResponse(CountDownLatch latch);
+    /**
+     * Creates a new response object for the underlying container. The response object is expected to release the given
+     * latch once the container has finished writing the response.
+     * @param containerRequest The request the response is produced for, the <code>ResponseWriter</code> may use it to
+     *                         negotiate the response encoding
+     * @param latch The latch the <code>proxy</code> method waits on before calling the <code>ResponseWriter</code>
+     * @return A new container response object
+     */
+    protected abstract ContainerResponseType getContainerResponse(ContainerRequestType containerRequest, ResponseLatch latch);
 
 
     protected abstract void handleRequest(ContainerRequestType containerRequest, ContainerResponseType containerResponse, Context lambdaContext)
@@ -74,22 +146,400 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
      * Proxies requests to the underlying container given the incoming Lambda request. This method returns a populated
      * return object for the Lambda function.
      *
+     * The wait for the container to commit the response is bounded by the remaining execution time of the function
+     * minus the response timeout margin. If the container does not commit the response in time, the request is
+     * answered by the <code>ExceptionHandler</code> with a <code>ContainerTimeoutException</code>.
+     *
+     * When a <code>ResponseCache</code> is registered and holds a response for the request, the stored response is
+     * returned without dispatching the request to the container.
+     *
+     * The first request handled in the JVM is recorded in the <code>StartupTimeline</code>, which is then written to
+     * the Lambda logger.
+     *
      * @param request The incoming Lambda request
      * @param context The execution context for the Lambda function
      * @return A valid response type
      */
     public ResponseType proxy(RequestType request, Context context) {
+        StartupTimeline startupTimeline = StartupTimeline.getInstance();
+        if (startupTimeline.isLogged()) {
+            return proxy(request, context, false);
+        }
+
+        // the first request completes the cold start, its timeline is logged once
+        ResponseType response;
+        try (StartupTimeline.Step step = startupTimeline.start("container.firstRequest")) {
+            response = proxy(request, context, false);
+        }
+        startupTimeline.logOnce(context.getLogger());
+        return response;
+    }
+
+
+    /**
+     * Runs synthetic requests through the full pipeline of the container and discards the responses. Calling this
+     * method from the function's initialization code, for example a static initializer or the handler's constructor,
+     * moves the framework's lazy initialization and the JIT compilation of the request path to Lambda's init phase,
+     * away from the first real request.
+     *
+     * Warm-up requests are not reported to the <code>ContainerMetricsListener</code> and their responses are not
+     * stored in the <code>ResponseCache</code>. Errors are answered by the <code>ExceptionHandler</code> as usual and
+     * do not interrupt the warm-up.
+     *
+     * @param requests The requests to run, for example built with the <code>AwsProxyRequestBuilder</code>
+     */
+    public void warmup(Collection<RequestType> requests) {
+        Context context = new MockLambdaContext();
+        try (StartupTimeline.Step step = StartupTimeline.getInstance().start("container.warmup")) {
+            for (RequestType request : requests) {
+                proxy(request, context, true);
+            }
+        }
+    }
+
+
+    /**
+     * Warms up the container with a <code>GET</code> request for each <code>GET</code> route returned by
+     * <code>getRoutes()</code>. Path parameters are replaced with the value returned by
+     * <code>ContainerRoute.getSamplePath()</code>. Routes with other methods are skipped so that warming up never
+     * modifies application data. This method requires the container to receive <code>AwsProxyRequest</code> events,
+     * other request types can be passed to <code>warmup(Collection)</code>.
+     *
+     * @throws ContainerInitializationException When the container does not receive <code>AwsProxyRequest</code> events
+     *                                          or the framework cannot be started to discover its routes
+     */
+    @SuppressWarnings("unchecked")
+    public void warmup() throws ContainerInitializationException {
+        if (!AwsProxyRequest.class.isAssignableFrom(requestReader.getRequestClass())) {
+            throw new ContainerInitializationException("Routes can only be warmed up with AwsProxyRequest events, use warmup(Collection) for "
+                                                       + requestReader.getRequestClass().getName(), null);
+        }
+
+        List<RequestType> requests = new ArrayList<>();
+        for (ContainerRoute route : getRoutes()) {
+            if ("GET".equals(route.getHttpMethod())) {
+                requests.add((RequestType) new AwsProxyRequestBuilder(route.getSamplePath(), route.getHttpMethod()).build());
+            }
+        }
+        warmup(requests);
+    }
+
+
+    /**
+     * The routes of the application running in the container. Framework implementations discover them from their own
+     * model, for example the Jersey resource model or the Spring handler mappings, and may start the framework to do
+     * so. The default implementation does not know about any route and returns an empty list.
+     *
+     * @return The routes of the application
+     * @throws ContainerInitializationException When the framework cannot be started to discover its routes
+     */
+    public List<ContainerRoute> getRoutes() throws ContainerInitializationException {
+        return Collections.emptyList();
+    }
+
+
+    /**
+     * Proxies a list of requests, for example the records of an SQS event, to the underlying container. Requests are
+     * handled in parallel by a pool of worker threads, sized by default on the number of available processors, and
+     * the responses are returned in the same order as the requests.
+     *
+     * Each request is passed through the <code>proxy</code> method with its own context: its remaining time is
+     * bounded by the batch request timeout, when one is set, measured from the moment a worker picks the request up.
+     * A request that fails, or that has not completed before the function's deadline minus the response timeout
+     * margin, is answered by the <code>ExceptionHandler</code> without affecting the other responses.
+     *
+     * @param requests The incoming Lambda requests
+     * @param context The execution context for the Lambda function
+     * @return The responses, in the order of the requests
+     */
+    public List<ResponseType> proxyBatch(List<RequestType> requests, Context context) {
+        List<ResponseType> responses = new ArrayList<>(requests.size());
+        if (requests.size() < 2) {
+            // nothing to run in parallel, skip the hand-off to the worker threads
+            for (RequestType request : requests) {
+                responses.add(proxy(request, new BatchRequestContext(context, batchRequestTimeoutMillis)));
+            }
+            return responses;
+        }
+
+        List<Future<ResponseType>> futures = new ArrayList<>(requests.size());
+        // setBatchParallelism and beforeCheckpoint shut the pool down under the same lock, a shut down pool only
+        // finishes the tasks it already accepted
+        synchronized (this) {
+            ExecutorService executor = getBatchExecutor();
+            for (RequestType request : requests) {
+                futures.add(executor.submit(() -> proxy(request, new BatchRequestContext(context, batchRequestTimeoutMillis))));
+            }
+        }
+
+        for (Future<ResponseType> future : futures) {
+            long timeoutMillis = context.getRemainingTimeInMillis() - responseTimeoutMarginMillis;
+            try {
+                responses.add(future.get(Math.max(timeoutMillis, 0), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                // requests still waiting for a worker are dropped, a running request keeps its worker until it returns
+                future.cancel(false);
+                responses.add(exceptionHandler.handle(
+                        new ContainerTimeoutException("Batch request did not complete within " + Math.max(timeoutMillis, 0) + "ms",
+                                                      ContainerMetrics.Phase.HANDLE_REQUEST)));
+            } catch (ExecutionException e) {
+                context.getLogger().log("Error while handling batch request: " + e.getCause());
+                responses.add(exceptionHandler.handle(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+                responses.add(exceptionHandler.handle(e));
+            }
+        }
+        return responses;
+    }
+
+
+    /**
+     * Handles requests from Lambda's <code>RequestStreamHandler</code>. The incoming event is bound to the request type
+     * declared by the <code>RequestReader</code> directly from the input stream and the response object is serialized
+     * straight to the output stream, skipping the Lambda runtime's own marshalling of the event and return value.
+     *
+     * <pre>
+     * {@code
+     *   public class StreamLambdaHandler implements RequestStreamHandler {
+     *     public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+     *       handler.proxyStream(input, output, context);
+     *     }
+     *   }
+     * }
+     * </pre>
+     *
+     * If the input stream cannot be parsed, the <code>ExceptionHandler</code>'s stream-based <code>handle</code> method
+     * is used to write an error response to the output stream.
+     *
+     * @param input The input stream for the Lambda event
+     * @param output The output stream the response JSON is written to
+     * @param context The execution context for the Lambda function
+     * @throws IOException When the response cannot be written to the output stream
+     */
+    public void proxyStream(InputStream input, OutputStream output, Context context)
+            throws IOException {
+        RequestType request;
         try {
-            SecurityContext securityContext = securityContextWriter.writeSecurityContext(request, context);
-            CountDownLatch latch = new CountDownLatch(1);
-            ContainerResponseType containerResponse = getContainerResponse(latch);
-            ContainerRequestType containerRequest = requestReader.readRequest(request, securityContext, context);
+            request = getRequestObjectReader().readValue(input);
+        } catch (JsonProcessingException e) {
+            context.getLogger().log("Error while parsing request stream: " + e.getMessage());
+            exceptionHandler.handle(new InvalidRequestEventException("Could not parse request stream", e), output);
+            return;
+        }
+
+        ResponseType response = proxy(request, context);
+
+        getResponseObjectWriter().writeValue(output, response);
+    }
+
+
+    /**
+     * Prepares the container for a snapshot of the JVM, such as a CRaC checkpoint or a Lambda SnapStart snapshot. The
+     * method is meant to be called from the <code>beforeCheckpoint</code> method of a CRaC <code>Resource</code> or
+     * of a runtime hook. It first runs the checkpoint warm-up requests, when configured, so that the snapshot contains
+     * a started framework and JIT-compiled request path. It then stops the <code>proxyBatch</code> worker threads and
+     * drops the idle response buffers. Both are created again when they are next needed.
+     *
+     * Framework implementations override this method to start their application before the snapshot and call the
+     * parent implementation.
+     *
+     * @throws ContainerInitializationException When the framework cannot be started to discover its warm-up routes
+     * @see #setCheckpointWarmupRequests(Collection)
+     * @see #setCheckpointWarmupRoutes(boolean)
+     */
+    public void beforeCheckpoint() throws ContainerInitializationException {
+        try (StartupTimeline.Step step = StartupTimeline.getInstance().start("container.beforeCheckpoint")) {
+            if (checkpointWarmupRequests != null) {
+                warmup(checkpointWarmupRequests);
+            }
+            if (checkpointWarmupRoutes) {
+                warmup();
+            }
+
+            synchronized (this) {
+                if (batchExecutor != null) {
+                    batchExecutor.shutdown();
+                    batchExecutor = null;
+                }
+            }
+            responseBufferPool.clear();
+        }
+    }
+
+
+    /**
+     * Re-establishes the state of the container after the JVM has been restored from a snapshot. The restored JVM
+     * starts a new <code>StartupTimeline</code>, so that the first request after the restore logs the restore instead
+     * of the steps that ran before the snapshot.
+     *
+     * @throws ContainerInitializationException When the framework cannot be restarted
+     */
+    public void afterRestore() throws ContainerInitializationException {
+        StartupTimeline.getInstance().clear();
+        StartupTimeline.getInstance().start("container.afterRestore").close();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Registers a listener that receives per-phase timings for each request handled by this container. Passing
+     * <code>null</code> removes the current listener and disables metrics collection.
+     * @param listener The metrics listener
+     */
+    public void setMetricsListener(ContainerMetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+
+    /**
+     * Registers a cache that is consulted before each request is dispatched to the container. Passing
+     * <code>null</code> disables caching.
+     * @param responseCache The response cache, for example an <code>AwsProxyResponseCache</code>
+     */
+    public void setResponseCache(ResponseCache<RequestType, ResponseType> responseCache) {
+        this.responseCache = responseCache;
+    }
+
+
+    /**
+     * The pool of response body buffers shared by the requests handled by this container. Implementations pass it to
+     * the container response objects created by <code>getContainerResponse</code>.
+     * @return The response buffer pool
+     */
+    protected ResponseBufferPool getResponseBufferPool() {
+        return responseBufferPool;
+    }
+
+
+    /**
+     * Sets the time reserved before the Lambda function's deadline to produce a timeout response when the container
+     * does not commit its response. The default value is {@value #DEFAULT_RESPONSE_TIMEOUT_MARGIN_MILLIS} milliseconds.
+     * @param marginMillis The safety margin in milliseconds
+     */
+    public void setResponseTimeoutMargin(long marginMillis) {
+        this.responseTimeoutMarginMillis = marginMillis;
+    }
+
+
+    /**
+     * Sets the requests run by <code>beforeCheckpoint</code> so that the snapshot contains a warm container. Passing
+     * <code>null</code>, the default, disables them.
+     * @param requests The warm-up requests, see <code>warmup(Collection)</code>
+     */
+    public void setCheckpointWarmupRequests(Collection<RequestType> requests) {
+        this.checkpointWarmupRequests = requests;
+    }
+
+
+    /**
+     * Sets whether <code>beforeCheckpoint</code> warms up the <code>GET</code> routes discovered from the framework,
+     * see <code>warmup()</code>. The default value is false.
+     * @param warmupRoutes true to warm up the discovered routes before the snapshot
+     */
+    public void setCheckpointWarmupRoutes(boolean warmupRoutes) {
+        this.checkpointWarmupRoutes = warmupRoutes;
+    }
+
+
+    /**
+     * Sets the number of worker threads used by <code>proxyBatch</code>. The default value is the number of
+     * processors available to the JVM.
+     * @param parallelism The number of requests of a batch handled at the same time
+     */
+    public synchronized void setBatchParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Batch parallelism must be at least 1, was " + parallelism);
+        }
+        this.batchParallelism = parallelism;
+        if (batchExecutor != null) {
+            // requests already submitted complete on the old workers
+            batchExecutor.shutdown();
+            batchExecutor = null;
+        }
+    }
+
+
+    /**
+     * Sets the time each request of a batch is allowed to run, measured from the moment a worker starts handling it.
+     * Values lower than 1, the default, only bound requests by the function's deadline.
+     * @param timeoutMillis The per-request budget in milliseconds
+     */
+    public void setBatchRequestTimeout(long timeoutMillis) {
+        this.batchRequestTimeoutMillis = timeoutMillis;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private ResponseType proxy(RequestType request, Context context, boolean warmup) {
+        // metrics are only collected when a listener is registered, warm-up requests are never reported or cached
+        ContainerMetrics metrics = warmup || metricsListener == null ? null : new ContainerMetrics();
+        ResponseCache<RequestType, ResponseType> responseCache = warmup ? null : this.responseCache;
+        ContainerRequestType containerRequest = null;
+        SecurityContext securityContext = null;
+        ResponseType response;
+
+        if (responseCache != null) {
+            response = responseCache.get(request);
+            if (response != null) {
+                if (metrics != null) {
+                    metrics.setCacheHit(true);
+                    publishMetrics(metrics, request, response, context);
+                }
+                return response;
+            }
+        }
+
+        try {
+            responseBufferPool.setMemoryLimitInMB(context.getMemoryLimitInMB());
+            securityContext = securityContextWriter.writeSecurityContext(request, context);
+            if (metrics != null) {
+                metrics.endPhase(ContainerMetrics.Phase.SECURITY_CONTEXT);
+            }
+
+            containerRequest = requestReader.readRequest(request, securityContext, context);
+            ResponseLatch latch = responseLatch.get();
+            latch.reset();
+            ContainerResponseType containerResponse = getContainerResponse(containerRequest, latch);
+            if (metrics != null) {
+                metrics.endPhase(ContainerMetrics.Phase.READ_REQUEST);
+            }
 
             handleRequest(containerRequest, containerResponse, context);
+            if (metrics != null) {
+                metrics.endPhase(ContainerMetrics.Phase.HANDLE_REQUEST);
+            }
 
-            latch.await();
+            long timeoutMillis = context.getRemainingTimeInMillis() - responseTimeoutMarginMillis;
+            if (!latch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                // the container may still release this latch later, make sure the next request gets a new one
+                responseLatch.remove();
+                throw new ContainerTimeoutException("Container did not commit the response within " + Math.max(timeoutMillis, 0)
+                                                    + "ms: stalled in phase " + ContainerMetrics.Phase.RESPONSE_WAIT
+                                                    + ", handleRequest returned but the response was never flushed or committed",
+                                                    ContainerMetrics.Phase.RESPONSE_WAIT);
+            }
+            if (metrics != null) {
+                metrics.endPhase(ContainerMetrics.Phase.RESPONSE_WAIT);
+            }
 
-            return responseWriter.writeResponse(containerResponse, context);
+            response = responseWriter.writeResponse(containerResponse, context);
+            // the container response is not used after this point, its body buffer can serve the next request
+            responseWriter.releaseResponse(containerResponse);
+            if (metrics != null) {
+                metrics.endPhase(ContainerMetrics.Phase.WRITE_RESPONSE);
+            }
+
+            if (responseCache != null) {
+                responseCache.put(request, response);
+            }
         } catch (Exception e) {
             context.getLogger().log("Error while handling request: " + e.getMessage());
 
@@ -98,7 +548,115 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
             }*/
             e.printStackTrace();
 
-            return exceptionHandler.handle(e);
+            if (metrics != null) {
+                metrics.setException(e);
+            }
+            response = exceptionHandler.handle(e);
+        } finally {
+            if (containerRequest != null) {
+                requestReader.releaseRequest(containerRequest);
+            }
+            if (securityContext != null) {
+                securityContextWriter.releaseSecurityContext(securityContext);
+            }
+        }
+
+        if (metrics != null) {
+            publishMetrics(metrics, request, response, context);
+        }
+        return response;
+    }
+
+
+    private static ObjectMapper createObjectMapper() {
+        try (StartupTimeline.Step step = StartupTimeline.getInstance().start("container.objectMapper")) {
+            return new ObjectMapper()
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                    .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        }
+    }
+
+
+    private void publishMetrics(ContainerMetrics metrics, RequestType request, ResponseType response, Context context) {
+        metrics.complete();
+
+        if (request instanceof AwsProxyRequest) {
+            AwsProxyRequest awsProxyRequest = (AwsProxyRequest) request;
+            metrics.setRouteKey(awsProxyRequest.getResource());
+            metrics.setRequestBytes(utf8Length(awsProxyRequest.getBody()));
+        }
+        if (response instanceof AwsProxyResponse) {
+            metrics.setResponseBytes(utf8Length(((AwsProxyResponse) response).getBody()));
+        }
+
+        try {
+            metricsListener.onRequestComplete(metrics);
+        } catch (Exception e) {
+            // a broken listener should never fail the request
+            context.getLogger().log("Error in container metrics listener: " + e.getMessage());
+        }
+    }
+
+
+    private static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+
+    private synchronized ExecutorService getBatchExecutor() {
+        if (batchExecutor == null) {
+            batchExecutor = Executors.newFixedThreadPool(batchParallelism, new BatchThreadFactory());
+        }
+        return batchExecutor;
+    }
+
+
+    private ObjectReader getRequestObjectReader() {
+        if (requestObjectReader == null) {
+            requestObjectReader = objectMapper.readerFor(requestReader.getRequestClass());
+        }
+        return requestObjectReader;
+    }
+
+
+    private ObjectWriter getResponseObjectWriter() {
+        if (responseObjectWriter == null) {
+            responseObjectWriter = objectMapper.writer();
+        }
+        return responseObjectWriter;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    private static class BatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "lambda-batch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 }
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+
+/**
+ * Shared access to the body of a proxy request event. The body is decoded at most once, the first time its bytes are
+ * requested, and every stream returned by this object reads from the same decoded content without copying it.
+ *
+ * Base64-encoded bodies are decoded by streaming the event string through the base64 decoder into an array of the exact
+ * decoded size. Text bodies are encoded with the charset requested by the caller, usually the charset declared in the
+ * request's content type, and are read directly from the event string by the <code>getReader</code> method.
+ *
+ * When the request declares a gzip or deflate <code>Content-Encoding</code>, the streams returned by this object inflate
+ * the body as it is read. Only the compressed bytes are kept in memory, and reading more than the maximum inflated size
+ * fails with an <code>IOException</code>. The request views built on this object hide the request's
+ * <code>Content-Encoding</code> and <code>Content-Length</code> headers when the body is inflated, since they describe the
+ * compressed bytes.
+ */
+public class RequestBody {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The default maximum size, in bytes, of a compressed request body once inflated
+     */
+    public static final long DEFAULT_MAX_INFLATED_SIZE = 32L * 1024 * 1024;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final int INFLATER_BUFFER_SIZE = 8192;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final String body;
+    private final boolean base64Encoded;
+    private byte[] bytes;
+    private Charset bytesCharset;
+    private String contentEncoding;
+    private long maxInflatedSize = DEFAULT_MAX_INFLATED_SIZE;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Creates a new body for the content of a request event
+     * @param body The body string from the event, may be null
+     * @param base64Encoded Whether the body string is base64-encoded binary content
+     */
+    public RequestBody(String body, boolean base64Encoded) {
+        this.body = body;
+        this.base64Encoded = base64Encoded;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * @return true if the request does not have a body
+     */
+    public boolean isEmpty() {
+        return body == null || body.isEmpty();
+    }
+
+
+    /**
+     * Returns a new stream over the body bytes. The body is decoded by the first call, subsequent calls re-use the
+     * decoded content unless a text body is requested in a different charset. Compressed bodies are inflated by the
+     * returned stream.
+     * @param charset The charset used to encode a text body, ignored for base64-encoded bodies
+     * @return A stream that reads the body bytes
+     * @throws IOException If the base64-encoded body is malformed or the compressed body has an invalid header
+     */
+    public InputStream getInputStream(Charset charset) throws IOException {
+        InputStream input = new ByteArrayInputStream(getBytes(charset));
+        if (!isInflated()) {
+            return input;
+        }
+
+        if ("deflate".equals(contentEncoding)) {
+            return new InflatedInputStream(new InflaterInputStream(input), maxInflatedSize);
+        }
+        return new InflatedInputStream(new GZIPInputStream(input, INFLATER_BUFFER_SIZE), maxInflatedSize);
+    }
+
+
+    /**
+     * Whether the streams returned by this object inflate the body. When they do, the request's
+     * <code>Content-Encoding</code> and <code>Content-Length</code> headers no longer describe the bytes the application
+     * reads.
+     * @return true if the body is not empty and is encoded with gzip or deflate
+     */
+    public boolean isInflated() {
+        if (isEmpty() || contentEncoding == null) {
+            return false;
+        }
+
+        switch (contentEncoding) {
+        case "gzip":
+        case "x-gzip":
+        case "deflate":
+            return true;
+        default:
+            return false;
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes the streams returned by <code>getInputStream</code> read. The length of an inflated
+     * body is only known once it has been read.
+     * @param charset The charset used to encode a text body, ignored for base64-encoded bodies
+     * @return The length of the body in bytes, -1 if the body is inflated
+     * @throws IOException If the base64-encoded body is malformed
+     */
+    public long getLength(Charset charset) throws IOException {
+        return isInflated() ? -1 : getBytes(charset).length;
+    }
+
+
+    /**
+     * Returns a new reader for the body. Text bodies are read directly from the event string, base64-encoded bodies are
+     * decoded and read with the given charset.
+     * @param charset The charset used to decode a base64-encoded body
+     * @return A reader for the body characters
+     * @throws IOException If the base64-encoded body is malformed
+     */
+    public Reader getReader(Charset charset) throws IOException {
+        if (!base64Encoded && contentEncoding == null) {
+            return new StringReader(body == null ? "" : body);
+        }
+        return new InputStreamReader(getInputStream(charset), charset);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Sets the value of the request's <code>Content-Encoding</code> header. Bodies encoded with <code>gzip</code> or
+     * <code>deflate</code> are inflated when they are read, other encodings are passed through as they are.
+     * @param contentEncoding The content encoding of the body, may be null
+     */
+    public void setContentEncoding(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.trim().isEmpty() || "identity".equalsIgnoreCase(contentEncoding.trim())) {
+            this.contentEncoding = null;
+        } else {
+            this.contentEncoding = contentEncoding.trim().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+
+    /**
+     * Sets the maximum size, in bytes, of a compressed body once inflated. The default value is
+     * {@value #DEFAULT_MAX_INFLATED_SIZE} bytes.
+     * @param maxInflatedSize The maximum inflated size
+     */
+    public void setMaxInflatedSize(long maxInflatedSize) {
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private byte[] getBytes(Charset charset) throws IOException {
+        if (isEmpty()) {
+            return EMPTY_BODY;
+        }
+
+        if (base64Encoded) {
+            if (bytes == null) {
+                bytes = decodeBase64(body);
+            }
+        } else if (bytes == null || !charset.equals(bytesCharset)) {
+            bytes = body.getBytes(charset);
+            bytesCharset = charset;
+        }
+        return bytes;
+    }
+
+
+    private static byte[] decodeBase64(String value) throws IOException {
+        int length = value.length();
+        while (length > 0 && value.charAt(length - 1) == '=') {
+            length--;
+        }
+        byte[] output = new byte[(int) ((long) length * 3 / 4)];
+
+        try (InputStream decoder = Base64.getDecoder().wrap(new CharSequenceInputStream(value))) {
+            int offset = 0;
+            while (offset < output.length) {
+                int read = decoder.read(output, offset, output.length - offset);
+                if (read < 0) {
+                    throw new IOException("Base64 request body ended after " + offset + " of " + output.length + " bytes");
+                }
+                offset += read;
+            }
+            if (decoder.read() >= 0) {
+                throw new IOException("Base64 request body is longer than its padding indicates");
+            }
+        }
+        return output;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    /**
+     * Counts the bytes produced by an inflating stream and fails once they exceed the maximum size, so that a small
+     * compressed body cannot expand into more memory than the function has
+     */
+    private static final class InflatedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long size;
+
+        InflatedInputStream(InputStream inflater, long maxSize) {
+            super(inflater);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long bytes) throws IOException {
+            size += bytes;
+            if (size > maxSize) {
+                throw new IOException("Inflated request body exceeds the maximum size of " + maxSize + " bytes");
+            }
+        }
+    }
+
+
+    /**
+     * Reads the characters of a base64 string as ASCII bytes, so the decoder can consume the event string without an
+     * intermediate byte copy. Characters outside of the ASCII range are passed through as invalid bytes for the decoder
+     * to reject.
+     */
+    private static final class CharSequenceInputStream extends InputStream {
+        private final CharSequence value;
+        private int position;
+
+        CharSequenceInputStream(CharSequence value) {
+            this.value = value;
+        }
+
+        @Override
+        public int read() {
+            if (position >= value.length()) {
+                return -1;
+            }
+            char c = value.charAt(position++);
+            return c < 0x80 ? c : 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int available = value.length() - position;
+            if (available <= 0) {
+                return -1;
+            }
+
+            int count = Math.min(len, available);
+            for (int i = 0; i < count; i++) {
+                char c = value.charAt(position++);
+                b[off + i] = (byte) (c < 0x80 ? c : 0xFF);
+            }
+            return count;
+        }
+    }
+}
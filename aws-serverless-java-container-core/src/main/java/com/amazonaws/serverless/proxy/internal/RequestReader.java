@@ -54,6 +54,18 @@ public abstract class RequestReader<RequestType, ContainerRequestType> {
      */
     public static final String LAMBDA_CONTEXT_PROPERTY = "com.amazonaws.lambda.context";
 
+    /**
+     * The key for the <strong>API Gateway event</strong> property in the PropertiesDelegate object
+     */
+    public static final String API_GATEWAY_EVENT_PROPERTY = "com.amazonaws.apigateway.request";
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private long maxInflatedBodySize = RequestBody.DEFAULT_MAX_INFLATED_SIZE;
+
 
     //-------------------------------------------------------------
     // Methods - Abstract
@@ -72,4 +84,37 @@ public abstract class RequestReader<RequestType, ContainerRequestType> {
 
 
     protected abstract Class<? extends RequestType> getRequestClass();
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Sets the maximum size, in bytes, of a gzip or deflate encoded request body once inflated. Request bodies with one of
+     * these content encodings are inflated as the container reads them, reading past this size fails with an
+     * <code>IOException</code>. The default value is {@value RequestBody#DEFAULT_MAX_INFLATED_SIZE} bytes.
+     * @param maxInflatedBodySize The maximum inflated size of a request body
+     */
+    public void setMaxInflatedBodySize(long maxInflatedBodySize) {
+        this.maxInflatedBodySize = maxInflatedBodySize;
+    }
+
+
+    protected long getMaxInflatedBodySize() {
+        return maxInflatedBodySize;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Protected
+    //-------------------------------------------------------------
+
+    /**
+     * Releases the resources held by a container request, such as temporary files, once the response for it has been
+     * written. The default implementation does nothing.
+     * @param containerRequest The request object produced by <code>readRequest</code>
+     */
+    protected void releaseRequest(ContainerRequestType containerRequest) {
+    }
 }
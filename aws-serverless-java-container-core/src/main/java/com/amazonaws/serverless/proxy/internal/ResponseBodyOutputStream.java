@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * Buffer for the response body produced by the underlying framework. While the body is written the stream keeps track
+ * of whether its content is valid UTF-8, so that the <code>ResponseWriter</code> can choose between a plain string and a
+ * base64-encoded body without scanning the buffer again once the response is complete.
+ *
+ * Text written through a <code>Writer</code> obtained from the <code>newWriter()</code> method with the UTF-8 charset is
+ * not scanned at all: the charset encoder only produces well-formed UTF-8.
+ *
+ * The buffer is the only copy of the body held by the container. Response writers read it through the read-only
+ * <code>toByteBuffer()</code> view and the <code>toString(Charset)</code> method, which decodes the body at most once.
+ */
+public class ResponseBodyOutputStream extends ByteArrayOutputStream {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final Utf8Validator validator = new Utf8Validator();
+    private String decodedBody;
+    private Charset decodedCharset;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    public ResponseBodyOutputStream() {
+        super();
+    }
+
+
+    /**
+     * Creates a new body stream with the given initial capacity
+     * @param size The initial size of the buffer, in bytes
+     */
+    public ResponseBodyOutputStream(int size) {
+        super(size);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    @Override
+    public synchronized void write(int b) {
+        super.write(b);
+        validator.update(b);
+        decodedBody = null;
+    }
+
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        super.write(b, off, len);
+        validator.update(b, off, len);
+        decodedBody = null;
+    }
+
+
+    @Override
+    public synchronized void reset() {
+        super.reset();
+        validator.reset();
+        decodedBody = null;
+    }
+
+
+    /**
+     * Decodes the body with the given charset. The decoded string is cached until the next write to the stream, calling
+     * this method again with the same charset does not decode the buffer a second time.
+     * @param charset The charset of the body
+     * @return The body as a string
+     */
+    public synchronized String toString(Charset charset) {
+        if (decodedBody == null || !charset.equals(decodedCharset)) {
+            decodedBody = new String(buf, 0, count, charset);
+            decodedCharset = charset;
+        }
+        return decodedBody;
+    }
+
+
+    /**
+     * Returns a read-only view of the body. The view shares the internal buffer of the stream, no data is copied. The
+     * view is only valid until the next write to the stream.
+     * @return A read-only buffer positioned at the beginning of the body
+     */
+    public synchronized ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Grows the internal buffer so that it can hold at least the given number of bytes without being copied again.
+     * The content of the stream is preserved.
+     * @param minCapacity The minimum capacity in bytes
+     */
+    public synchronized void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            buf = Arrays.copyOf(buf, minCapacity);
+        }
+    }
+
+
+    /**
+     * The size of the internal buffer
+     * @return The capacity in bytes
+     */
+    public synchronized int capacity() {
+        return buf.length;
+    }
+
+
+    /**
+     * Whether the content written to the stream so far is a valid UTF-8 string. This method does not read the buffer,
+     * the validity is computed as the bytes are written.
+     * @return true if the body is valid UTF-8, false otherwise
+     */
+    public synchronized boolean isValidUtf8() {
+        return validator.isValid();
+    }
+
+
+    /**
+     * Returns a new <code>Writer</code> that encodes characters with the given charset and writes them to this stream.
+     * @param charset The charset used to encode the text
+     * @return A writer for this stream, the writer buffers data and must be flushed
+     */
+    public Writer newWriter(Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return new OutputStreamWriter(new EncodedUtf8OutputStream(), charset);
+        }
+        return new OutputStreamWriter(this, charset);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private synchronized void writeEncodedUtf8(byte[] b, int off, int len) {
+        super.write(b, off, len);
+        decodedBody = null;
+        // the encoder only flushes complete characters, we only need to look at the bytes when a raw write to the
+        // stream left an incomplete sequence behind
+        if (!validator.isOnCharacterBoundary()) {
+            validator.update(b, off, len);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    /**
+     * Receives the output of a UTF-8 charset encoder
+     */
+    private class EncodedUtf8OutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            writeEncodedUtf8(new byte[] { (byte)b }, 0, 1);
+        }
+
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writeEncodedUtf8(b, off, len);
+        }
+    }
+}
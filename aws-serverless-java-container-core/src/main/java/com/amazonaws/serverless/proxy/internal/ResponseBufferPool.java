@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of reusable <code>ResponseBodyOutputStream</code> buffers owned by a <code>LambdaContainerHandler</code>.
+ * Container responses acquire their body buffer from the pool and the <code>ResponseWriter</code> returns it once the
+ * Lambda response object has been produced, so that warm invocations re-use the buffers of previous requests instead of
+ * allocating and growing a new one each time.
+ *
+ * New buffers, and pooled buffers that are smaller than the responses seen recently, are sized to the largest of the
+ * last {@value #SIZE_HISTORY_LENGTH} response bodies. Buffers that grew beyond the maximum buffer capacity are not kept
+ * in the pool. The maximum capacity defaults to {@value #DEFAULT_MAX_BUFFER_CAPACITY} bytes, the largest payload a
+ * synchronous Lambda function can return, and is lowered for functions with little memory.
+ */
+public class ResponseBufferPool {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The default number of idle buffers kept in the pool
+     */
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 4;
+
+    /**
+     * The default capacity, in bytes, of the largest buffer kept in the pool
+     */
+    public static final int DEFAULT_MAX_BUFFER_CAPACITY = 6 * 1024 * 1024;
+
+    static final int DEFAULT_INITIAL_CAPACITY = 1024;
+    static final int SIZE_HISTORY_LENGTH = 16;
+
+    // at most this fraction of the function's memory is retained by a single pooled buffer
+    private static final int MEMORY_LIMIT_DIVISOR = 32;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final Deque<ResponseBodyOutputStream> buffers = new ArrayDeque<>();
+    private final int[] sizeHistory = new int[SIZE_HISTORY_LENGTH];
+    private int sizeHistoryIndex;
+    private int maxPooledBuffers = DEFAULT_MAX_POOLED_BUFFERS;
+    private int maxBufferCapacity = DEFAULT_MAX_BUFFER_CAPACITY;
+    private int memoryLimitInMB;
+    private long allocationCount;
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Returns an empty buffer, either from the pool or newly allocated
+     * @return An empty body buffer
+     */
+    public synchronized ResponseBodyOutputStream acquire() {
+        int expectedSize = Math.min(getExpectedSize(), maxBufferCapacity);
+        ResponseBodyOutputStream buffer = buffers.pollFirst();
+        if (buffer == null) {
+            allocationCount++;
+            return new ResponseBodyOutputStream(expectedSize);
+        }
+        buffer.ensureCapacity(expectedSize);
+        return buffer;
+    }
+
+
+    /**
+     * Returns a buffer to the pool. The size of its content is recorded to size future buffers and the buffer is reset.
+     * The buffer must not be used by the caller after this method returns.
+     * @param buffer The buffer to return, a null value is ignored
+     */
+    public synchronized void release(ResponseBodyOutputStream buffer) {
+        if (buffer == null) {
+            return;
+        }
+
+        sizeHistory[sizeHistoryIndex] = buffer.size();
+        sizeHistoryIndex = (sizeHistoryIndex + 1) % SIZE_HISTORY_LENGTH;
+
+        buffer.reset();
+        if (buffer.capacity() <= maxBufferCapacity && buffers.size() < maxPooledBuffers && !buffers.contains(buffer)) {
+            buffers.addFirst(buffer);
+        }
+    }
+
+
+    /**
+     * Drops the idle buffers, for example before a snapshot of the JVM is taken. The size history is kept so that new
+     * buffers are sized like the ones that were dropped.
+     */
+    public synchronized void clear() {
+        buffers.clear();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Sets the number of idle buffers kept in the pool. The default value is {@value #DEFAULT_MAX_POOLED_BUFFERS}.
+     * Setting the value to 0 disables pooling.
+     * @param maxPooledBuffers The maximum number of pooled buffers
+     */
+    public synchronized void setMaxPooledBuffers(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+        while (buffers.size() > maxPooledBuffers) {
+            buffers.pollLast();
+        }
+    }
+
+
+    /**
+     * Lowers the maximum buffer capacity to a fraction of the function's memory. The container handler calls this
+     * method with the value of <code>Context.getMemoryLimitInMB()</code>, values lower than 1 are ignored.
+     * @param memoryLimitInMB The memory configured for the Lambda function
+     */
+    public synchronized void setMemoryLimitInMB(int memoryLimitInMB) {
+        if (memoryLimitInMB < 1 || memoryLimitInMB == this.memoryLimitInMB) {
+            return;
+        }
+        this.memoryLimitInMB = memoryLimitInMB;
+        maxBufferCapacity = (int) Math.min(DEFAULT_MAX_BUFFER_CAPACITY, memoryLimitInMB * 1024L * 1024L / MEMORY_LIMIT_DIVISOR);
+        buffers.removeIf(buffer -> buffer.capacity() > maxBufferCapacity);
+    }
+
+
+    /**
+     * The capacity of the largest buffer kept in the pool
+     * @return The maximum capacity in bytes
+     */
+    public synchronized int getMaxBufferCapacity() {
+        return maxBufferCapacity;
+    }
+
+
+    /**
+     * The number of buffers allocated by the pool because no idle buffer was available
+     * @return The allocation count
+     */
+    public synchronized long getAllocationCount() {
+        return allocationCount;
+    }
+
+
+    /**
+     * The number of idle buffers currently held by the pool
+     * @return The number of pooled buffers
+     */
+    public synchronized int getPooledBufferCount() {
+        return buffers.size();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private int getExpectedSize() {
+        int expectedSize = DEFAULT_INITIAL_CAPACITY;
+        for (int size : sizeHistory) {
+            expectedSize = Math.max(expectedSize, size);
+        }
+        return expectedSize;
+    }
+}
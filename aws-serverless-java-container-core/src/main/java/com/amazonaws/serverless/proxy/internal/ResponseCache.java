@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+/**
+ * Optional cache consulted by the <code>LambdaContainerHandler</code> before a request is dispatched to the underlying
+ * container. When the cache returns a response for an incoming request, the <code>proxy</code> method returns it
+ * immediately without reading the request or calling <code>handleRequest</code>. Every response produced by the
+ * container is offered to the cache with the <code>put</code> method, implementations decide whether it can be stored.
+ *
+ * Caches are registered with the <code>setResponseCache</code> method of the container handler.
+ *
+ * @see AwsProxyResponseCache
+ * @see LambdaContainerHandler#setResponseCache(ResponseCache)
+ *
+ * @param <RequestType> The Lambda request type, used to compute the cache key
+ * @param <ResponseType> The Lambda response type stored in the cache
+ */
+public interface ResponseCache<RequestType, ResponseType> {
+    /**
+     * Looks up a stored response for the given request
+     * @param request The incoming Lambda request
+     * @return The stored response, null if the request must be handled by the container
+     */
+    ResponseType get(RequestType request);
+
+    /**
+     * Called by the container handler with each response produced by the container. Implementations only store
+     * responses that are cacheable for the given request.
+     * @param request The Lambda request the response was produced for
+     * @param response The response returned by the <code>ResponseWriter</code>
+     */
+    void put(RequestType request, ResponseType response);
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-waiter completion signal used by container response objects to tell the <code>LambdaContainerHandler</code>
+ * that the response has been written. Frameworks normally release the latch on the same thread before the
+ * <code>handleRequest</code> method returns, in which case <code>await</code> returns after a single volatile read.
+ * Otherwise the waiting thread is parked until the latch is released or the timeout expires.
+ *
+ * Unlike a <code>CountDownLatch</code>, a latch can be reset and re-used by the same handler thread for the next
+ * request.
+ */
+public class ResponseLatch {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private volatile boolean released;
+    private volatile Thread waiter;
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Signals that the response is complete and wakes up the waiting thread, if any. Calling this method multiple
+     * times has no additional effect.
+     */
+    public void release() {
+        released = true;
+        Thread waitingThread = waiter;
+        if (waitingThread != null) {
+            LockSupport.unpark(waitingThread);
+        }
+    }
+
+
+    /**
+     * Whether the latch has been released since it was created or last reset
+     * @return true if the response has been signalled as complete
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+
+    /**
+     * Waits for the latch to be released. Only one thread is expected to wait on a latch at any given time.
+     * @param timeout The maximum time to wait. Values less than or equal to 0 do not wait at all
+     * @param unit The unit for the timeout value
+     * @return true if the latch was released, false if the timeout expired first
+     * @throws InterruptedException If the waiting thread is interrupted
+     */
+    public boolean await(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (released) {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waiter = Thread.currentThread();
+        try {
+            while (!released) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return true;
+        } finally {
+            waiter = null;
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    void reset() {
+        released = false;
+    }
+}
@@ -18,8 +18,24 @@ import com.amazonaws.services.lambda.runtime.Context;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
@@ -33,6 +49,49 @@ import java.io.OutputStream;
  */
 public abstract class ResponseWriter<ContainerResponseType, ResponseType> {
 
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The default size, in bytes, under which response bodies are not compressed
+     */
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+
+    /**
+     * The content types compressed by default. Entries can use a <code>*</code> wildcard for the subtype, optionally
+     * followed by a structured syntax suffix such as <code>+json</code>.
+     */
+    public static final Set<String> DEFAULT_COMPRESSIBLE_CONTENT_TYPES = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "text/*", "application/json", "application/*+json", "application/javascript", "application/xml",
+            "application/*+xml", "image/svg+xml")));
+
+    protected static final String CONTENT_ENCODING_GZIP = "gzip";
+    protected static final String CONTENT_ENCODING_DEFLATE = "deflate";
+
+    private static final int BASE64_CHUNK_SIZE = 8192;
+    private static final int COMPRESSION_BUFFER_SIZE = 8192;
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    private static final String HEADER_VARY = "Vary";
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final int HTTP_STATUS_OK = 200;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private boolean compressionEnabled = false;
+    private int compressionMinSize = DEFAULT_COMPRESSION_MIN_SIZE;
+    private Set<String> compressibleContentTypes = DEFAULT_COMPRESSIBLE_CONTENT_TYPES;
+    private boolean eTagEnabled = false;
+
+
+
     //-------------------------------------------------------------
     // Methods - Abstract
     //-------------------------------------------------------------
@@ -47,47 +106,389 @@ public abstract class ResponseWriter<ContainerResponseType, ResponseType> {
     protected abstract ResponseType writeResponse(ContainerResponseType containerResponse, Context lambdaContext)
             throws InvalidResponseObjectException;
 
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Enables gzip and deflate compression of response bodies, negotiated from the request's <code>Accept-Encoding</code>
+     * header. Compression is disabled by default. Compressed bodies are returned base64-encoded.
+     * @param compressionEnabled Whether response bodies should be compressed
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+
+    /**
+     * Sets the size, in bytes, under which response bodies are returned uncompressed. The default value is
+     * {@value #DEFAULT_COMPRESSION_MIN_SIZE} bytes.
+     * @param compressionMinSize The minimum body size for compression
+     */
+    public void setCompressionMinSize(int compressionMinSize) {
+        this.compressionMinSize = compressionMinSize;
+    }
+
+
+    /**
+     * Sets the content types that are compressed, replacing the <code>DEFAULT_COMPRESSIBLE_CONTENT_TYPES</code>. Entries
+     * such as <code>text/*</code> or <code>application/*+json</code> match all the subtypes of a type.
+     * @param contentTypes The compressible content types
+     */
+    public void setCompressibleContentTypes(Collection<String> contentTypes) {
+        Set<String> types = new LinkedHashSet<>();
+        for (String contentType : contentTypes) {
+            types.add(contentType.trim().toLowerCase(Locale.ENGLISH));
+        }
+        this.compressibleContentTypes = Collections.unmodifiableSet(types);
+    }
+
+
+    /**
+     * Enables ETag generation and conditional GET support. Successful responses to GET and HEAD requests receive a weak
+     * <code>ETag</code> computed from the body, unless the application already set one, and requests whose
+     * <code>If-None-Match</code> header matches the tag are answered with a 304 response without a body. ETags are
+     * disabled by default.
+     * @param eTagEnabled Whether ETags should be generated and checked
+     */
+    public void setETagEnabled(boolean eTagEnabled) {
+        this.eTagEnabled = eTagEnabled;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Protected
+    //-------------------------------------------------------------
+
+    /**
+     * Releases the resources held by a container response, such as a pooled body buffer, once the Lambda response
+     * object has been produced by <code>writeResponse</code>. The default implementation does nothing.
+     * @param containerResponse The container response that was written
+     */
+    protected void releaseResponse(ContainerResponseType containerResponse) {
+    }
+
+
+    /**
+     * Sets the <code>ETag</code> header of a successful response to a GET or HEAD request and checks it against the
+     * request's <code>If-None-Match</code> header. This method should be called before the body is encoded or
+     * compressed: when it returns true the response writer replaces the response with a 304 and skips the body.
+     *
+     * The generated tag is a weak validator built from a CRC-32 checksum and the length of the body, so the same tag
+     * identifies the body whether it is later returned compressed or not. When the application already set an
+     * <code>ETag</code> header its value is used as is and the body is not hashed. Once the response is not modified the
+     * <code>Content-Length</code> header is removed from the headers.
+     *
+     * @param body The response body, the position of the buffer is not modified
+     * @param statusCode The status code of the response
+     * @param method The HTTP method of the request
+     * @param ifNoneMatch The value of the request's <code>If-None-Match</code> header, may be null
+     * @param headers The response headers
+     * @return true if the client's copy is current and a 304 response should be returned
+     */
+    protected boolean checkNotModified(final ByteBuffer body, final int statusCode, final String method, final String ifNoneMatch,
+                                       final Map<String, String> headers) {
+        if (!eTagEnabled || statusCode != HTTP_STATUS_OK || headers == null
+                || !("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method))) {
+            return false;
+        }
+
+        String eTag = getHeader(headers, HEADER_ETAG);
+        if (eTag == null) {
+            eTag = computeETag(body);
+            headers.put(HEADER_ETAG, eTag);
+        }
+
+        if (ifNoneMatch == null || !matchesETag(ifNoneMatch, eTag)) {
+            return false;
+        }
+        removeHeader(headers, HEADER_CONTENT_LENGTH);
+        return true;
+    }
+
+
+    /**
+     * Compresses the response body when compression is enabled, the body is large enough, its content type is in the
+     * list of compressible types and the client accepts gzip or deflate. The body is compressed straight from the buffer
+     * and the compressed bytes are returned base64-encoded.
+     *
+     * The response headers are updated to match: <code>Vary: Accept-Encoding</code> is added to every response that
+     * could be compressed, <code>Content-Encoding</code> is set and <code>Content-Length</code> is removed when the body
+     * is compressed.
+     *
+     * @param body The response body, the position of the buffer is not modified
+     * @param acceptEncoding The value of the request's <code>Accept-Encoding</code> header, may be null
+     * @param headers The response headers
+     * @return The compressed, base64-encoded, body or null if the body should be returned as is
+     */
+    protected String compressBody(final ByteBuffer body, final String acceptEncoding, final Map<String, String> headers) {
+        if (!compressionEnabled || body.remaining() < compressionMinSize || headers == null
+                || getHeader(headers, HEADER_CONTENT_ENCODING) != null
+                || !isCompressibleContentType(getHeader(headers, HEADER_CONTENT_TYPE))) {
+            return null;
+        }
+
+        addVaryAcceptEncoding(headers);
+        String encoding = negotiateContentEncoding(acceptEncoding);
+        if (encoding == null) {
+            return null;
+        }
+
+        CompressedBody compressed = new CompressedBody(body.remaining() / 4 + 64);
+        // the gzip stream manages its own deflater, the deflate stream needs one to use a larger buffer
+        Deflater deflater = CONTENT_ENCODING_GZIP.equals(encoding) ? null : new Deflater();
+        try (OutputStream output = deflater == null
+                                   ? new GZIPOutputStream(compressed, COMPRESSION_BUFFER_SIZE)
+                                   : new DeflaterOutputStream(compressed, deflater, COMPRESSION_BUFFER_SIZE)) {
+            copy(body, output);
+        } catch (IOException e) {
+            // we only write to memory
+            throw new UncheckedIOException(e);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+
+        removeHeader(headers, HEADER_CONTENT_LENGTH);
+        headers.put(HEADER_CONTENT_ENCODING, encoding);
+        return encodeBase64(compressed.toByteBuffer());
+    }
+
+
+    /**
+     * Picks the content encoding for the response from the request's <code>Accept-Encoding</code> header. The encoding
+     * with the highest quality value wins, gzip is preferred over deflate when they have the same quality.
+     * @param acceptEncoding The value of the <code>Accept-Encoding</code> header, may be null
+     * @return <code>gzip</code>, <code>deflate</code>, or null if the client does not accept either
+     */
+    protected String negotiateContentEncoding(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        float gzip = -1;
+        float deflate = -1;
+        float wildcard = -1;
+        for (String value : acceptEncoding.split(",")) {
+            String[] parameters = value.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ENGLISH);
+            float quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (CONTENT_ENCODING_GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                gzip = Math.max(gzip, quality);
+            } else if (CONTENT_ENCODING_DEFLATE.equals(coding)) {
+                deflate = Math.max(deflate, quality);
+            } else if ("*".equals(coding)) {
+                wildcard = Math.max(wildcard, quality);
+            }
+        }
+
+        // codings that are not listed are covered by the wildcard
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return CONTENT_ENCODING_GZIP;
+        }
+        if (deflate > 0) {
+            return CONTENT_ENCODING_DEFLATE;
+        }
+        return null;
+    }
+
+
     /**
      * Checks whether the given byte array contains a UTF-8 encoded string
      * @param input The byte[] to check against
      * @return true if the contend is valid UTF-8, false otherwise
      */
     protected boolean isValidUtf8(final byte[] input) {
-        int i = 0;
-        // Check for BOM
-        if (input.length >= 3 && (input[0] & 0xFF) == 0xEF
-                && (input[1] & 0xFF) == 0xBB & (input[2] & 0xFF) == 0xBF) {
-            i = 3;
-        }
-
-        int end;
-        for (int j = input.length; i < j; ++i) {
-            int octet = input[i];
-            if ((octet & 0x80) == 0) {
-                continue; // ASCII
-            }
+        return isValidUtf8(input, 0, input.length);
+    }
+
+
+    /**
+     * Checks whether a range of the given byte array contains a UTF-8 encoded string. The check accepts all the well-formed
+     * sequences defined by RFC 3629, including the 4-byte sequences used for supplementary characters such as emoji,
+     * and rejects overlong encodings, surrogates, code points above U+10FFFF and sequences truncated by the end of the range.
+     *
+     * Runs of ASCII characters, which make up most JSON and HTML bodies, are checked 8 bytes at a time.
+     *
+     * @param input The byte[] to check against
+     * @param offset The index of the first byte to check
+     * @param length The number of bytes to check
+     * @return true if the content is valid UTF-8, false otherwise
+     */
+    protected boolean isValidUtf8(final byte[] input, final int offset, final int length) {
+        Utf8Validator validator = new Utf8Validator();
+        return validator.update(input, offset, length) && validator.isValid();
+    }
+
+
+    /**
+     * Encodes a binary body to a base64 string with the MIME encoder. The body is read from the buffer in chunks, it is not
+     * copied to a new array before encoding.
+     * @param body The body to encode, the position of the buffer is not modified
+     * @return The base64-encoded body
+     */
+    protected String encodeBase64(final ByteBuffer body) {
+        int encodedLength = 4 * ((body.remaining() + 2) / 3);
+        // the MIME encoder adds a line separator every 76 characters
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(encodedLength + encodedLength / 76 * 2);
+
+        try (OutputStream output = Base64.getMimeEncoder().wrap(encoded)) {
+            copy(body, output);
+            // closing the encoder writes the last, padded, group
+            output.close();
+            return encoded.toString("ISO-8859-1");
+        } catch (IOException e) {
+            // we only write to memory
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    /**
+     * Writes the remaining content of the buffer to the stream in chunks, without moving the position of the buffer
+     */
+    private static void copy(final ByteBuffer body, final OutputStream output) throws IOException {
+        ByteBuffer input = body.duplicate();
+        byte[] chunk = new byte[Math.min(input.remaining(), BASE64_CHUNK_SIZE)];
+        while (input.hasRemaining()) {
+            int length = Math.min(input.remaining(), chunk.length);
+            input.get(chunk, 0, length);
+            output.write(chunk, 0, length);
+        }
+    }
+
+
+    private static String computeETag(final ByteBuffer body) {
+        ByteBuffer input = body.duplicate();
+        CRC32 checksum = new CRC32();
+        // read-only buffers do not expose their array, CRC32.update(ByteBuffer) would copy the whole body
+        byte[] chunk = new byte[Math.min(input.remaining(), BASE64_CHUNK_SIZE)];
+        while (input.hasRemaining()) {
+            int length = Math.min(input.remaining(), chunk.length);
+            input.get(chunk, 0, length);
+            checksum.update(chunk, 0, length);
+        }
+        return WEAK_ETAG_PREFIX + "\"" + Integer.toHexString(body.remaining()) + "-" + Long.toHexString(checksum.getValue()) + "\"";
+    }
 
-            // Check for UTF-8 leading byte
-            if ((octet & 0xE0) == 0xC0) {
-                end = i + 1;
-            } else if ((octet & 0xF0) == 0xE0) {
-                end = i + 2;
-            } else if ((octet & 0xF8) == 0xF0) {
-                end = i + 3;
-            } else {
-                // Java only supports BMP so 3 is max
-                return false;
+
+    /**
+     * Compares the tags in an <code>If-None-Match</code> header with the weak comparison function of RFC 7232
+     */
+    private static boolean matchesETag(final String ifNoneMatch, final String eTag) {
+        String opaqueTag = stripWeakPrefix(eTag.trim());
+        for (String value : ifNoneMatch.split(",")) {
+            String candidate = value.trim();
+            if ("*".equals(candidate) || opaqueTag.equals(stripWeakPrefix(candidate))) {
+                return true;
             }
+        }
+        return false;
+    }
+
+
+    private static String stripWeakPrefix(final String eTag) {
+        return eTag.startsWith(WEAK_ETAG_PREFIX) ? eTag.substring(WEAK_ETAG_PREFIX.length()) : eTag;
+    }
+
+
+    private boolean isCompressibleContentType(final String contentTypeHeader) {
+        if (contentTypeHeader == null) {
+            return false;
+        }
 
-            while (i < end) {
-                i++;
-                octet = input[i];
-                if ((octet & 0xC0) != 0x80) {
-                    // Not a valid trailing byte
-                    return false;
+        String contentType = contentTypeHeader.split(";")[0].trim().toLowerCase(Locale.ENGLISH);
+        for (String pattern : compressibleContentTypes) {
+            int wildcard = pattern.indexOf("/*");
+            if (wildcard < 0) {
+                if (pattern.equals(contentType)) {
+                    return true;
                 }
+            } else if (contentType.startsWith(pattern.substring(0, wildcard + 1))
+                       && contentType.endsWith(pattern.substring(wildcard + 2))) {
+                return true;
             }
         }
-        return true;
+        return false;
+    }
+
+
+    private static void addVaryAcceptEncoding(final Map<String, String> headers) {
+        String vary = getHeader(headers, HEADER_VARY);
+        if (vary == null) {
+            headers.put(HEADER_VARY, HEADER_ACCEPT_ENCODING);
+            return;
+        }
+
+        for (String value : vary.split(",")) {
+            String name = value.trim();
+            if ("*".equals(name) || HEADER_ACCEPT_ENCODING.equalsIgnoreCase(name)) {
+                return;
+            }
+        }
+        removeHeader(headers, HEADER_VARY);
+        headers.put(HEADER_VARY, vary + ", " + HEADER_ACCEPT_ENCODING);
+    }
+
+
+    private static String getHeader(final Map<String, String> headers, final String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+
+    private static void removeHeader(final Map<String, String> headers, final String name) {
+        Iterator<String> names = headers.keySet().iterator();
+        while (names.hasNext()) {
+            if (name.equalsIgnoreCase(names.next())) {
+                names.remove();
+            }
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    /**
+     * Buffer for the compressed body that exposes its content without the copy made by <code>toByteArray()</code>
+     */
+    private static final class CompressedBody extends ByteArrayOutputStream {
+        CompressedBody(int size) {
+            super(size);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
     }
 }
@@ -35,4 +35,14 @@ public interface SecurityContextWriter<RequestType> {
      * @return A populated SecurityContext object
      */
     SecurityContext writeSecurityContext(final RequestType event, final Context lambdaContext);
+
+    /**
+     * Called by the container implementation once the response for a request has been produced, on the thread that
+     * called <code>writeSecurityContext</code>. Implementations that keep per-request state, for example in a
+     * <code>ThreadLocal</code>, release it here. The default implementation does nothing.
+     *
+     * @param securityContext The security context returned by <code>writeSecurityContext</code>
+     */
+    default void releaseSecurityContext(final SecurityContext securityContext) {
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Records the steps of the function's cold start: the construction of the framework's application, the startup of the
+ * container and the first request. The container handlers and the framework implementations record their own steps in
+ * the shared instance returned by <code>getInstance()</code>, and the <code>LambdaContainerHandler</code> logs the
+ * timeline once, as a single JSON line, after the first request.
+ *
+ * <pre>
+ * {@code
+ *   try (StartupTimeline.Step step = StartupTimeline.getInstance().start("app.loadConfiguration")) {
+ *     loadConfiguration();
+ *   }
+ * }
+ * </pre>
+ *
+ * Each step reports its wall time, the CPU time of the thread that ran it, the number of classes loaded by the JVM
+ * while it ran and the heap used when it completed. Class loading is counted for the whole JVM, steps that run at the
+ * same time on other threads share their counts.
+ *
+ * The timeline only covers the cold start: once it has been logged, or once it holds {@value #MAX_STEPS} steps, new
+ * steps are still measured but are no longer recorded, so handlers created or warmed up later do not grow it for the
+ * life of the JVM. <code>clear()</code> starts a new timeline, for example after a restore from a snapshot.
+ */
+public class StartupTimeline {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * The maximum number of steps recorded by a timeline
+     */
+    public static final int MAX_STEPS = 256;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final List<Step> steps = new ArrayList<>();
+    private final AtomicBoolean logged = new AtomicBoolean();
+
+
+    //-------------------------------------------------------------
+    // Variables - Private - Static
+    //-------------------------------------------------------------
+
+    private static final StartupTimeline instance = new StartupTimeline();
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private static final ClassLoadingMXBean classLoadingBean = ManagementFactory.getClassLoadingMXBean();
+    private static final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private static final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    StartupTimeline() {
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    /**
+     * The timeline of the current JVM
+     * @return The shared timeline
+     */
+    public static StartupTimeline getInstance() {
+        return instance;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Starts a new step. The step is completed by its <code>close</code> method and is only reported once completed.
+     * Steps started after the timeline has been logged, or when it is full, are measured but not recorded.
+     * @param name The name of the step, prefixed by the component that records it, for example
+     *             <code>jersey.applicationHandler</code>
+     * @return The running step
+     */
+    public Step start(String name) {
+        Step step = new Step(name);
+        if (logged.get()) {
+            return step;
+        }
+        synchronized (steps) {
+            if (steps.size() < MAX_STEPS) {
+                steps.add(step);
+            }
+        }
+        return step;
+    }
+
+
+    /**
+     * The completed steps, in the order they were started
+     * @return A copy of the completed steps
+     */
+    public List<Step> getSteps() {
+        List<Step> completed = new ArrayList<>();
+        synchronized (steps) {
+            for (Step step : steps) {
+                if (step.isCompleted()) {
+                    completed.add(step);
+                }
+            }
+        }
+        return completed;
+    }
+
+
+    /**
+     * Writes the timeline to the given logger as a single JSON line, the first time this method is called
+     * @param logger The logger of the Lambda context
+     */
+    public void logOnce(LambdaLogger logger) {
+        if (logged.compareAndSet(false, true)) {
+            logger.log(toJson());
+        }
+    }
+
+
+    /**
+     * Whether the timeline has already been logged
+     * @return true once <code>logOnce</code> has been called
+     */
+    public boolean isLogged() {
+        return logged.get();
+    }
+
+
+    /**
+     * Removes all steps, including the running ones, and allows the timeline to be logged again
+     */
+    public void clear() {
+        synchronized (steps) {
+            steps.clear();
+        }
+        logged.set(false);
+    }
+
+
+    /**
+     * Serializes the completed steps, the JVM uptime and the total number of loaded classes as a JSON object
+     * @return The timeline as a JSON string
+     */
+    public String toJson() {
+        List<Map<String, Object>> stepValues = new ArrayList<>();
+        for (Step step : getSteps()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("step", step.getName());
+            values.put("startMillis", step.getStartMillis());
+            values.put("wallMillis", toMillis(step.getWallNanos()));
+            values.put("cpuMillis", step.getCpuNanos() < 0 ? -1 : toMillis(step.getCpuNanos()));
+            values.put("classesLoaded", step.getClassesLoaded());
+            values.put("heapUsedBytes", step.getHeapUsedBytes());
+            stepValues.add(values);
+        }
+
+        Map<String, Object> timeline = new LinkedHashMap<>();
+        timeline.put("startupTimeline", stepValues);
+        timeline.put("jvmUptimeMillis", runtimeBean.getUptime());
+        timeline.put("classesLoaded", classLoadingBean.getTotalLoadedClassCount());
+        try {
+            return new ObjectMapper().writeValueAsString(timeline);
+        } catch (JsonProcessingException e) {
+            // maps of strings and numbers are always serializable
+            throw new IllegalStateException("Could not serialize the startup timeline", e);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10000.0) / 100.0;
+    }
+
+
+    private static long currentThreadCpuNanos() {
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : -1;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    /**
+     * A step of the startup timeline. Steps are completed by calling <code>close</code>, which makes them usable in a
+     * try-with-resources block. Calling <code>close</code> more than once has no effect.
+     */
+    public static class Step implements AutoCloseable {
+        private final String name;
+        private final long startMillis;
+        private final long startNanos;
+        private final long startCpuNanos;
+        private final long startClassCount;
+        private volatile boolean completed;
+        private long wallNanos;
+        private long cpuNanos;
+        private long classesLoaded;
+        private long heapUsedBytes;
+
+        private Step(String name) {
+            this.name = name;
+            this.startMillis = runtimeBean.getUptime();
+            this.startClassCount = classLoadingBean.getTotalLoadedClassCount();
+            this.startCpuNanos = currentThreadCpuNanos();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (completed) {
+                return;
+            }
+            wallNanos = System.nanoTime() - startNanos;
+            long endCpuNanos = currentThreadCpuNanos();
+            cpuNanos = startCpuNanos < 0 || endCpuNanos < 0 ? -1 : endCpuNanos - startCpuNanos;
+            classesLoaded = classLoadingBean.getTotalLoadedClassCount() - startClassCount;
+            heapUsedBytes = memoryBean.getHeapMemoryUsage().getUsed();
+            completed = true;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The JVM uptime, in milliseconds, when the step started
+         */
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public synchronized long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return The CPU time used by the thread that started and completed the step, -1 if the JVM does not measure
+         *         thread CPU time
+         */
+        public synchronized long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /**
+         * @return The number of classes loaded by the JVM while the step ran
+         */
+        public synchronized long getClassesLoaded() {
+            return classesLoaded;
+        }
+
+        /**
+         * @return The heap used when the step completed
+         */
+        public synchronized long getHeapUsedBytes() {
+            return heapUsedBytes;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+
+/**
+ * Incremental UTF-8 validator. Bytes can be fed to the validator in any number of chunks, a multi-byte sequence split
+ * across two chunks is completed by the next call to <code>update</code>. The validator accepts the well-formed
+ * sequences defined by RFC 3629, including 4-byte sequences, and rejects overlong encodings, surrogates and code points
+ * above U+10FFFF. Runs of ASCII characters are checked 8 bytes at a time.
+ *
+ * Instances of this class are not thread safe.
+ */
+final class Utf8Validator {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private boolean malformed;
+    // number of continuation bytes the current sequence still expects
+    private int pending;
+    // range accepted for the next continuation byte, the first one after some lead bytes is restricted
+    private int lowerBound = 0x80;
+    private int upperBound = 0xBF;
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Feeds a chunk of bytes to the validator
+     * @param input The byte array
+     * @param offset The index of the first byte to read
+     * @param length The number of bytes to read
+     * @return false if the bytes seen so far cannot be valid UTF-8, true otherwise
+     */
+    boolean update(final byte[] input, final int offset, final int length) {
+        if (malformed) {
+            return false;
+        }
+
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (pending == 0) {
+                // ASCII fast path: a block of 8 bytes is all ASCII when none of them has the high bit set
+                while (i <= end - 8 && ((input[i] | input[i + 1] | input[i + 2] | input[i + 3]
+                        | input[i + 4] | input[i + 5] | input[i + 6] | input[i + 7]) & 0x80) == 0) {
+                    i += 8;
+                }
+                if (i >= end) {
+                    break;
+                }
+            }
+
+            if (!accept(input[i] & 0xFF)) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+
+    /**
+     * Feeds a single byte to the validator
+     * @param octet The byte, only the lower 8 bits are used
+     * @return false if the bytes seen so far cannot be valid UTF-8, true otherwise
+     */
+    boolean update(final int octet) {
+        return !malformed && accept(octet & 0xFF);
+    }
+
+
+    /**
+     * Whether all the bytes seen so far are valid UTF-8 and do not end in the middle of a multi-byte sequence
+     * @return true if the input is valid UTF-8
+     */
+    boolean isValid() {
+        return !malformed && pending == 0;
+    }
+
+
+    /**
+     * Whether the input seen so far ends on a character boundary. Input that ends in the middle of a multi-byte sequence
+     * must be completed by the next chunk.
+     * @return true if the validator is not waiting for continuation bytes
+     */
+    boolean isOnCharacterBoundary() {
+        return pending == 0;
+    }
+
+
+    void reset() {
+        malformed = false;
+        pending = 0;
+        lowerBound = 0x80;
+        upperBound = 0xBF;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private boolean accept(final int octet) {
+        if (pending > 0) {
+            if (octet < lowerBound || octet > upperBound) {
+                malformed = true;
+                return false;
+            }
+            lowerBound = 0x80;
+            upperBound = 0xBF;
+            pending--;
+            return true;
+        }
+
+        if (octet < 0x80) {
+            return true;
+        }
+        if (octet < 0xC2 || octet > 0xF4) {
+            // continuation byte without a lead byte, overlong 2-byte sequence or beyond U+10FFFF
+            malformed = true;
+            return false;
+        }
+
+        if (octet < 0xE0) {
+            pending = 1;
+        } else if (octet < 0xF0) {
+            pending = 2;
+            if (octet == 0xE0) {
+                lowerBound = 0xA0; // overlong
+            } else if (octet == 0xED) {
+                upperBound = 0x9F; // UTF-16 surrogates
+            }
+        } else {
+            pending = 3;
+            if (octet == 0xF0) {
+                lowerBound = 0x90; // overlong
+            } else if (octet == 0xF4) {
+                upperBound = 0x8F; // above U+10FFFF
+            }
+        }
+        return true;
+    }
+}
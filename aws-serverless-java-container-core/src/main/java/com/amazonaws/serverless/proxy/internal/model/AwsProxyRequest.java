@@ -13,6 +13,7 @@
 package com.amazonaws.serverless.proxy.internal.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Map;
 
@@ -147,11 +148,13 @@ public class AwsProxyRequest {
     }
 
 
+    @JsonProperty("isBase64Encoded")
     public boolean isBase64Encoded() {
         return isBase64Encoded;
     }
 
 
+    @JsonProperty("isBase64Encoded")
     public void setBase64Encoded(boolean base64Encoded) {
         isBase64Encoded = base64Encoded;
     }
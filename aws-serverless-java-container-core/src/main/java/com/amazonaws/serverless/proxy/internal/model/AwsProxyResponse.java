@@ -12,6 +12,8 @@
  */
 package com.amazonaws.serverless.proxy.internal.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -102,10 +104,12 @@ public class AwsProxyResponse {
         this.body = body;
     }
 
+    @JsonProperty("isBase64Encoded")
     public boolean isBase64Encoded() {
         return isBase64Encoded;
     }
 
+    @JsonProperty("isBase64Encoded")
     public void setBase64Encoded(boolean base64Encoded) {
         isBase64Encoded = base64Encoded;
     }
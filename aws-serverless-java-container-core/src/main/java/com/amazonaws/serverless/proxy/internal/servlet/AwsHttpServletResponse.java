@@ -12,19 +12,24 @@
  */
 package com.amazonaws.serverless.proxy.internal.servlet;
 
+import com.amazonaws.serverless.proxy.internal.ResponseBodyOutputStream;
+import com.amazonaws.serverless.proxy.internal.ResponseBufferPool;
+import com.amazonaws.serverless.proxy.internal.ResponseLatch;
+
 import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedHashMap;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * Basic implementation of the <code>HttpServletResponse</code> object. This is used by the <code>AwsProxyHttpServletResponseWriter</code>
@@ -39,6 +44,7 @@ public class AwsHttpServletResponse
     //-------------------------------------------------------------
 
     private static final String HEADER_DATE_FORMAT = "EEE, d MMM yyyy HH:mm:ss z";
+    private static final String CHARSET_PARAMETER = "charset";
 
 
     //-------------------------------------------------------------
@@ -48,9 +54,12 @@ public class AwsHttpServletResponse
     private MultivaluedHashMap<String, String> headers = new MultivaluedHashMap<>();
     private int statusCode;
     private String statusMessage;
-    private String responseBody;
-    private ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-    private CountDownLatch writersCountDownLatch;
+    private ResponseBodyOutputStream bodyOutputStream;
+    private ResponseBufferPool bufferPool;
+    private PrintWriter writer;
+    private String characterEncoding;
+    private ResponseLatch writersLatch;
+    private AwsProxyHttpServletRequest request;
     private boolean isCommitted = false;
 
 
@@ -59,12 +68,38 @@ public class AwsHttpServletResponse
     //-------------------------------------------------------------
 
     /**
-     * The constructor for this object receives a <code>CountDownLatch</code> to synchronize the execution of the Lambda
+     * The constructor for this object receives a <code>ResponseLatch</code> to synchronize the execution of the Lambda
      * function while the response is asynchronously written by the underlying container/application
      * @param latch A latch used to inform the <code>ContainerHandler</code> that we are done receiving the response data
      */
-    public AwsHttpServletResponse(CountDownLatch latch) {
-        writersCountDownLatch = latch;
+    public AwsHttpServletResponse(ResponseLatch latch) {
+        this(null, latch);
+    }
+
+
+    /**
+     * Creates a new response for the given request. The request headers are used by the response writer to negotiate
+     * the encoding of the response body.
+     * @param request The request this response is produced for
+     * @param latch A latch used to inform the <code>ContainerHandler</code> that we are done receiving the response data
+     */
+    public AwsHttpServletResponse(AwsProxyHttpServletRequest request, ResponseLatch latch) {
+        this(request, latch, null);
+    }
+
+
+    /**
+     * Creates a new response that writes its body to a buffer taken from the given pool. The buffer is returned to the
+     * pool by the <code>AwsProxyHttpServletResponseWriter</code> once the Lambda response has been produced.
+     * @param request The request this response is produced for
+     * @param latch A latch used to inform the <code>ContainerHandler</code> that we are done receiving the response data
+     * @param bufferPool The pool the body buffer is taken from, when null a new buffer is allocated
+     */
+    public AwsHttpServletResponse(AwsProxyHttpServletRequest request, ResponseLatch latch, ResponseBufferPool bufferPool) {
+        this.request = request;
+        this.bufferPool = bufferPool;
+        writersLatch = latch;
+        bodyOutputStream = bufferPool == null ? new ResponseBodyOutputStream() : bufferPool.acquire();
     }
 
 
@@ -223,7 +258,7 @@ public class AwsHttpServletResponse
 
     @Override
     public String getCharacterEncoding() {
-        return headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        return characterEncoding;
     }
 
 
@@ -263,11 +298,29 @@ public class AwsHttpServletResponse
                 try {
                     bodyOutputStream.write(b);
                 } catch (Exception e) {
-                    listener.onError(e);
+                    onError(e);
+                }
+            }
+
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    bodyOutputStream.write(b, off, len);
+                } catch (Exception e) {
+                    onError(e);
                 }
             }
 
 
+            private void onError(Exception e) throws IOException {
+                if (listener == null) {
+                    throw new IOException("Could not write to the response body", e);
+                }
+                listener.onError(e);
+            }
+
+
             @Override
             public void close()
                     throws IOException {
@@ -280,13 +333,23 @@ public class AwsHttpServletResponse
 
     @Override
     public PrintWriter getWriter() throws IOException {
-        return new PrintWriter(bodyOutputStream);
+        if (writer == null) {
+            writer = new PrintWriter(bodyOutputStream.newWriter(getWriterCharset()));
+        }
+        return writer;
     }
 
 
     @Override
     public void setCharacterEncoding(String s) {
-        setHeader(HttpHeaders.CONTENT_ENCODING, s, true);
+        // the character encoding is part of the content type, Content-Encoding is reserved for gzip/deflate bodies
+        if (writer != null || isCommitted) {
+            return;
+        }
+        characterEncoding = s;
+        if (getContentType() != null) {
+            setHeader(HttpHeaders.CONTENT_TYPE, withCharset(getContentType(), s), true);
+        }
     }
 
 
@@ -304,13 +367,23 @@ public class AwsHttpServletResponse
 
     @Override
     public void setContentType(String s) {
+        if (s != null) {
+            String charset = getCharsetParameter(s);
+            if (charset == null && characterEncoding != null) {
+                s = withCharset(s, characterEncoding);
+            } else if (charset != null && writer == null && !isCommitted) {
+                characterEncoding = charset;
+            }
+        }
         setHeader(HttpHeaders.CONTENT_TYPE, s, true);
     }
 
 
     @Override
     public void setBufferSize(int i) {
-        bodyOutputStream = new ByteArrayOutputStream(i);
+        bodyOutputStream.reset();
+        bodyOutputStream.ensureCapacity(i);
+        writer = null;
     }
 
 
@@ -322,15 +395,18 @@ public class AwsHttpServletResponse
 
     @Override
     public void flushBuffer() throws IOException {
-        responseBody = new String(bodyOutputStream.toByteArray());
+        if (writer != null) {
+            writer.flush();
+        }
         isCommitted = true;
-        writersCountDownLatch.countDown();
+        writersLatch.release();
     }
 
 
     @Override
     public void resetBuffer() {
-        bodyOutputStream = new ByteArrayOutputStream();
+        bodyOutputStream.reset();
+        writer = null;
     }
 
 
@@ -343,8 +419,9 @@ public class AwsHttpServletResponse
     @Override
     public void reset() {
         headers = new MultivaluedHashMap<>();
-        responseBody = null;
-        bodyOutputStream = new ByteArrayOutputStream();
+        characterEncoding = null;
+        bodyOutputStream.reset();
+        writer = null;
     }
 
 
@@ -364,15 +441,45 @@ public class AwsHttpServletResponse
     // Methods - Package
     //-------------------------------------------------------------
 
+    /**
+     * Returns the body decoded as UTF-8, the body is only decoded the first time this method is called after a write
+     * @return The response body, null if the response has not been flushed yet
+     */
     String getAwsResponseBodyString() {
-        return responseBody;
+        if (!isCommitted) {
+            return null;
+        }
+        return bodyOutputStream.toString(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * @return A read-only view of the response body, the data is not copied
+     */
+    ByteBuffer getAwsResponseBodyBuffer() {
+        return bodyOutputStream.toByteBuffer();
+    }
+
+
+    boolean isAwsResponseBodyValidUtf8() {
+        return bodyOutputStream.isValidUtf8();
     }
 
-    byte[] getAwsResponseBodyBytes() {
-        if (bodyOutputStream != null) {
-            return bodyOutputStream.toByteArray();
+
+    AwsProxyHttpServletRequest getAwsRequest() {
+        return request;
+    }
+
+
+    /**
+     * Returns the body buffer to the pool it was taken from. The body of this response must not be read or written
+     * after this method is called.
+     */
+    void releaseBuffer() {
+        if (bufferPool != null) {
+            bufferPool.release(bodyOutputStream);
+            bufferPool = null;
         }
-        return new byte[0];
     }
 
 
@@ -390,6 +497,64 @@ public class AwsHttpServletResponse
     // Methods - Private
     //-------------------------------------------------------------
 
+    /**
+     * The charset used by the writer is the response character encoding, or the charset parameter of the content type.
+     * When neither is set, or the value is not a valid charset, we default to UTF-8.
+     */
+    private Charset getWriterCharset() {
+        String encoding = getCharacterEncoding();
+        if (encoding == null && getContentType() != null) {
+            encoding = getCharsetParameter(getContentType());
+        }
+
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                // not a charset name, fall through to the default
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+
+    /**
+     * Reads the charset parameter of a content type, returns null when the content type does not declare one
+     */
+    private static String getCharsetParameter(String contentType) {
+        String charset = null;
+        for (String parameter : contentType.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && CHARSET_PARAMETER.equalsIgnoreCase(pair[0].trim())) {
+                charset = pair[1].trim().replace("\"", "");
+            }
+        }
+        return charset;
+    }
+
+
+    /**
+     * Replaces the charset parameter of a content type, or appends it when the content type does not declare one
+     */
+    private static String withCharset(String contentType, String charset) {
+        StringBuilder value = new StringBuilder();
+        for (String parameter : contentType.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && CHARSET_PARAMETER.equalsIgnoreCase(pair[0].trim())) {
+                continue;
+            }
+            if (value.length() > 0) {
+                value.append(";");
+            }
+            value.append(parameter.trim());
+        }
+        if (charset != null) {
+            value.append(";").append(CHARSET_PARAMETER).append("=").append(charset);
+        }
+        return value.toString();
+    }
+
+
     private void setHeader(String key, String value, boolean overwrite) {
         List<String> values = headers.get(key);
 
@@ -13,16 +13,18 @@
 package com.amazonaws.serverless.proxy.internal.servlet;
 
 
+import com.amazonaws.serverless.proxy.internal.RequestBody;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.services.lambda.runtime.Context;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 
 import javax.servlet.AsyncContext;
 import javax.servlet.DispatcherType;
-import javax.servlet.ReadListener;
+import javax.servlet.MultipartConfigElement;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -40,17 +42,17 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.SecurityContext;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -81,6 +83,12 @@ public class AwsProxyHttpServletRequest
     private static final String HEADER_DATE_FORMAT = "EEE, d MMM yyyy HH:mm:ss z";
     private static final String ENCODING_VALUE_KEY = "charset";
 
+    /**
+     * The default size, in bytes, above which the content of a multipart part is written to a temporary file instead of
+     * being kept in memory
+     */
+    public static final int DEFAULT_MULTIPART_FILE_SIZE_THRESHOLD = 1024 * 1024;
+
     // We need this to pickup the protocol from the CloudFront header since Lambda doesn't receive this
     // information from anywhere else
     static final String CF_PROTOCOL_HEADER_NAME = "CloudFront-Forwarded-Proto";
@@ -94,8 +102,15 @@ public class AwsProxyHttpServletRequest
     private Context lamdaContext;
     private SecurityContext securityContext;
     private Map<String, Object> attributes;
+    private RequestBody requestBody;
+    // form bodies are only parsed the first time a parameter or part is requested
     private Map<String, List<String>> urlEncodedFormParameters;
     private Map<String, Part> multipartFormParameters;
+    private MultipartConfigElement multipartConfig;
+    private long maxInflatedBodySize = RequestBody.DEFAULT_MAX_INFLATED_SIZE;
+    // case-insensitive views of the request headers and query string, built the first time they are needed
+    private Map<String, String> headerIndex;
+    private Map<String, String> queryStringIndex;
 
 
     //-------------------------------------------------------------
@@ -108,8 +123,6 @@ public class AwsProxyHttpServletRequest
         this.securityContext = awsSecurityContext;
 
         this.attributes = new HashMap<>();
-        this.urlEncodedFormParameters = getFormUrlEncodedParametersMap();
-        this.multipartFormParameters = getMultipartFormParametersMap();
     }
 
 
@@ -184,7 +197,18 @@ public class AwsProxyHttpServletRequest
         if (request.getHeaders() == null) {
             return Collections.emptyEnumeration();
         }
-        return Collections.enumeration(request.getHeaders().keySet());
+        if (!getRequestBody().isInflated()) {
+            return Collections.enumeration(request.getHeaders().keySet());
+        }
+
+        // the headers that describe the compressed body are not in the index
+        List<String> names = new ArrayList<>();
+        for (String name : request.getHeaders().keySet()) {
+            if (getHeaderCaseInsensitive(name) != null) {
+                names.add(name);
+            }
+        }
+        return Collections.enumeration(names);
     }
 
 
@@ -352,14 +376,14 @@ public class AwsProxyHttpServletRequest
     @Override
     public Collection<Part> getParts()
             throws IOException, ServletException {
-        return multipartFormParameters.values();
+        return getMultipartFormParameters().values();
     }
 
 
     @Override
     public Part getPart(String s)
             throws IOException, ServletException {
-        return multipartFormParameters.get(s);
+        return getMultipartFormParameters().get(s);
     }
 
 
@@ -420,6 +444,7 @@ public class AwsProxyHttpServletRequest
             request.getHeaders().put(
                     HttpHeaders.CONTENT_TYPE,
                     HEADER_VALUE_SEPARATOR + " " + ENCODING_VALUE_KEY + HEADER_KEY_VALUE_SEPARATOR + s);
+            headerIndex = null;
             return;
         }
 
@@ -441,6 +466,7 @@ public class AwsProxyHttpServletRequest
                     HttpHeaders.CONTENT_TYPE,
                     currentContentType + HEADER_VALUE_SEPARATOR + " " + ENCODING_VALUE_KEY + HEADER_KEY_VALUE_SEPARATOR + s);
         }
+        headerIndex = null;
     }
 
     @Override
@@ -471,47 +497,9 @@ public class AwsProxyHttpServletRequest
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        byte[] bodyBytes = request.getBody().getBytes();
-        if (request.isBase64Encoded()) {
-            bodyBytes = Base64.getDecoder().decode(request.getBody());
-        }
-        ByteArrayInputStream requestBodyStream = new ByteArrayInputStream(bodyBytes);
-        return new ServletInputStream() {
-
-            private ReadListener listener;
-
-            @Override
-            public boolean isFinished() {
-                return true;
-            }
-
-
-            @Override
-            public boolean isReady() {
-                return true;
-            }
-
-
-            @Override
-            public void setReadListener(ReadListener readListener) {
-                listener = readListener;
-                try {
-                    listener.onDataAvailable();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-
-
-            @Override
-            public int read() throws IOException {
-                int readByte = requestBodyStream.read();
-                if (requestBodyStream.available() == 0 && listener != null) {
-                    listener.onAllDataRead();
-                }
-                return readByte;
-            }
-        };
+        RequestBody body = getRequestBody();
+        Charset charset = getBodyCharset();
+        return new AwsServletInputStream(body.getInputStream(charset), body.getLength(charset));
     }
 
 
@@ -537,7 +525,7 @@ public class AwsProxyHttpServletRequest
         if (request.getQueryStringParameters() != null) {
             paramNames.addAll(request.getQueryStringParameters().keySet());
         }
-        paramNames.addAll(urlEncodedFormParameters.keySet());
+        paramNames.addAll(getFormUrlEncodedParameters().keySet());
         return Collections.enumeration(paramNames);
     }
 
@@ -569,9 +557,10 @@ public class AwsProxyHttpServletRequest
     public Map<String, String[]> getParameterMap() {
         Map<String, String[]> output = new HashMap<>();
 
-        Map<String, List<String>> params = urlEncodedFormParameters;
-        if (params == null) {
-            params = new HashMap<>();
+        // copy the form parameters, the parsed form is cached and must not receive the query string values
+        Map<String, List<String>> params = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> entry : getFormUrlEncodedParameters().entrySet()) {
+            params.put(entry.getKey(), new ArrayList<>(entry.getValue()));
         }
 
         if (request.getQueryStringParameters() != null) {
@@ -631,7 +620,7 @@ public class AwsProxyHttpServletRequest
     @Override
     public BufferedReader getReader()
             throws IOException {
-        return new BufferedReader(new StringReader(request.getBody()));
+        return new BufferedReader(getRequestBody().getReader(getBodyCharset()));
     }
 
 
@@ -743,7 +732,7 @@ public class AwsProxyHttpServletRequest
 
     @Override
     public ServletContext getServletContext() {
-        return AwsProxyServletContext.getInstance(request, lamdaContext);
+        return AwsProxyServletContext.getInstance();
     }
 
 
@@ -783,39 +772,126 @@ public class AwsProxyHttpServletRequest
     }
 
 
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Sets the configuration used to parse multipart requests. Parts larger than the file size threshold are written to
+     * a temporary file in the configured location, smaller parts are kept in memory. When no location is specified the
+     * <code>java.io.tmpdir</code> directory is used. The maximum file and request sizes are enforced when they are
+     * greater than zero. The configuration must be set before the parts are read.
+     * @param multipartConfig The multipart configuration for this request
+     */
+    public void setMultipartConfig(MultipartConfigElement multipartConfig) {
+        this.multipartConfig = multipartConfig;
+    }
+
+
+    /**
+     * Sets the maximum size, in bytes, of a gzip or deflate encoded body once inflated by the input stream or reader.
+     * The default value is {@value RequestBody#DEFAULT_MAX_INFLATED_SIZE} bytes.
+     * @param maxInflatedBodySize The maximum inflated size of the body
+     */
+    public void setMaxInflatedBodySize(long maxInflatedBodySize) {
+        this.maxInflatedBodySize = maxInflatedBodySize;
+        if (requestBody != null) {
+            requestBody.setMaxInflatedSize(maxInflatedBodySize);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Deletes the temporary files of the multipart parts read from this request. Called once the response has been
+     * written, parts that were never read have nothing to delete.
+     */
+    void deleteParts() {
+        if (multipartFormParameters == null) {
+            return;
+        }
+
+        for (Part part : multipartFormParameters.values()) {
+            try {
+                part.delete();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+
     //-------------------------------------------------------------
     // Methods - Private
     //-------------------------------------------------------------
 
-    private String getHeaderCaseInsensitive(String key) {
-        if (request.getHeaders() == null) {
-            return null;
+    private RequestBody getRequestBody() {
+        if (requestBody == null) {
+            requestBody = new RequestBody(request.getBody(), request.isBase64Encoded());
+            requestBody.setContentEncoding(buildCaseInsensitiveIndex(request.getHeaders()).get(HttpHeaders.CONTENT_ENCODING));
+            requestBody.setMaxInflatedSize(maxInflatedBodySize);
+        }
+        return requestBody;
+    }
+
+
+    private Charset getBodyCharset() {
+        String encoding = getCharacterEncoding();
+        if (encoding == null) {
+            return StandardCharsets.UTF_8;
         }
-        for (String requestHeaderKey : request.getHeaders().keySet()) {
-            if (key.toLowerCase().equals(requestHeaderKey.toLowerCase())) {
-                return request.getHeaders().get(requestHeaderKey);
+        try {
+            return Charset.forName(encoding.trim());
+        } catch (IllegalArgumentException e) {
+            // unsupported or malformed charset names fall back to the default encoding for API Gateway bodies
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+
+    /**
+     * Looks up a request header. Once the body is inflated, the <code>Content-Encoding</code> and
+     * <code>Content-Length</code> headers describe bytes the application never reads, so they are left out of the index.
+     */
+    private String getHeaderCaseInsensitive(String key) {
+        if (headerIndex == null) {
+            headerIndex = buildCaseInsensitiveIndex(request.getHeaders());
+            if (getRequestBody().isInflated()) {
+                headerIndex.remove(HttpHeaders.CONTENT_ENCODING);
+                headerIndex.remove(HttpHeaders.CONTENT_LENGTH);
             }
         }
-        return null;
+        return headerIndex.get(key);
     }
 
 
     private String getQueryStringParameterCaseInsensitive(String key) {
-        if (request.getQueryStringParameters() == null) {
-            return null;
+        if (queryStringIndex == null) {
+            queryStringIndex = buildCaseInsensitiveIndex(request.getQueryStringParameters());
         }
+        return queryStringIndex.get(key);
+    }
 
-        for (String requestParamKey : request.getQueryStringParameters().keySet()) {
-            if (key.toLowerCase().equals(requestParamKey.toLowerCase())) {
-                return request.getQueryStringParameters().get(requestParamKey);
-            }
+
+    /**
+     * Copies the given map to a map ordered with <code>String.CASE_INSENSITIVE_ORDER</code>. Lookups in the index do not
+     * allocate and, with the number of headers API Gateway sends, take a handful of comparisons.
+     */
+    private static Map<String, String> buildCaseInsensitiveIndex(Map<String, String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyMap();
         }
-        return null;
+        Map<String, String> index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        index.putAll(values);
+        return index;
     }
 
 
     private String[] getFormBodyParameterCaseInsensitive(String key) {
-            List<String> values = urlEncodedFormParameters.get(key);
+            List<String> values = getFormUrlEncodedParameters().get(key);
             if (values != null) {
                 String[] valuesArray = new String[values.size()];
                 valuesArray = values.toArray(valuesArray);
@@ -826,20 +902,57 @@ public class AwsProxyHttpServletRequest
         }
 
 
+    private Map<String, List<String>> getFormUrlEncodedParameters() {
+        if (urlEncodedFormParameters == null) {
+            urlEncodedFormParameters = getFormUrlEncodedParametersMap();
+        }
+        return urlEncodedFormParameters;
+    }
+
+
+    private Map<String, Part> getMultipartFormParameters() {
+        if (multipartFormParameters == null) {
+            multipartFormParameters = getMultipartFormParametersMap();
+        }
+        return multipartFormParameters;
+    }
+
+
     private Map<String, Part> getMultipartFormParametersMap() {
+        // check the content type before we touch the file upload classes, most requests are not multipart
+        String contentType = getContentType();
+        if (contentType == null || !contentType.toLowerCase(Locale.ENGLISH).startsWith("multipart/")) {
+            return new HashMap<>();
+        }
         if (!ServletFileUpload.isMultipartContent(this)) { // isMultipartContent also checks the content type
             return new HashMap<>();
         }
 
         Map<String, Part> output = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
-        ServletFileUpload upload = new ServletFileUpload();
+        MultipartConfigElement config = multipartConfig;
+        if (config == null) {
+            config = new MultipartConfigElement(null, -1L, -1L, DEFAULT_MULTIPART_FILE_SIZE_THRESHOLD);
+        }
+        String location = config.getLocation();
+        if (location == null || location.isEmpty()) {
+            location = System.getProperty("java.io.tmpdir");
+        }
+
+        // parts above the threshold are streamed to a temporary file while the body is parsed
+        ServletFileUpload upload = new ServletFileUpload(new DiskFileItemFactory(config.getFileSizeThreshold(), new File(location)));
+        if (config.getMaxFileSize() > 0) {
+            upload.setFileSizeMax(config.getMaxFileSize());
+        }
+        if (config.getMaxRequestSize() > 0) {
+            upload.setSizeMax(config.getMaxRequestSize());
+        }
         try {
             List<FileItem> items = upload.parseRequest(this);
             for (FileItem item : items) {
-                AwsProxyRequestPart newPart = new AwsProxyRequestPart(item.get());
-                newPart.setName(item.getName());
-                newPart.setSubmittedFileName(item.getFieldName());
+                AwsProxyRequestPart newPart = new AwsProxyRequestPart(item);
+                newPart.setName(item.getFieldName());
+                newPart.setSubmittedFileName(item.getName());
                 newPart.setContentType(item.getContentType());
                 newPart.setSize(item.getSize());
 
@@ -17,6 +17,7 @@ import com.amazonaws.serverless.proxy.internal.RequestReader;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.services.lambda.runtime.Context;
 
+import javax.servlet.MultipartConfigElement;
 import javax.ws.rs.core.SecurityContext;
 
 /**
@@ -25,6 +26,13 @@ import javax.ws.rs.core.SecurityContext;
  */
 public class AwsProxyHttpServletRequestReader extends RequestReader<AwsProxyRequest, AwsProxyHttpServletRequest> {
 
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private MultipartConfigElement multipartConfig;
+
+
     //-------------------------------------------------------------
     // Methods - Implementation
     //-------------------------------------------------------------
@@ -33,6 +41,10 @@ public class AwsProxyHttpServletRequestReader extends RequestReader<AwsProxyRequ
     public AwsProxyHttpServletRequest readRequest(AwsProxyRequest request, SecurityContext securityContext, Context lambdaContext)
             throws InvalidRequestEventException {
         AwsProxyHttpServletRequest servletRequest = new AwsProxyHttpServletRequest(request, lambdaContext, securityContext);
+        if (multipartConfig != null) {
+            servletRequest.setMultipartConfig(multipartConfig);
+        }
+        servletRequest.setMaxInflatedBodySize(getMaxInflatedBodySize());
         servletRequest.setAttribute(API_GATEWAY_CONTEXT_PROPERTY, request.getRequestContext());
         servletRequest.setAttribute(API_GATEWAY_STAGE_VARS_PROPERTY, request.getStageVariables());
         servletRequest.setAttribute(LAMBDA_CONTEXT_PROPERTY, lambdaContext);
@@ -44,4 +56,25 @@ public class AwsProxyHttpServletRequestReader extends RequestReader<AwsProxyRequ
     protected Class<? extends AwsProxyRequest> getRequestClass() {
         return AwsProxyRequest.class;
     }
+
+
+    @Override
+    protected void releaseRequest(AwsProxyHttpServletRequest containerRequest) {
+        containerRequest.deleteParts();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * Sets the multipart configuration passed to every request produced by this reader. When no configuration is set,
+     * parts larger than {@value AwsProxyHttpServletRequest#DEFAULT_MULTIPART_FILE_SIZE_THRESHOLD} bytes are written to
+     * the <code>java.io.tmpdir</code> directory.
+     * @param multipartConfig The multipart configuration
+     */
+    public void setMultipartConfig(MultipartConfigElement multipartConfig) {
+        this.multipartConfig = multipartConfig;
+    }
 }
@@ -18,8 +18,10 @@ import com.amazonaws.serverless.proxy.internal.ResponseWriter;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
 import com.amazonaws.services.lambda.runtime.Context;
 
-import java.io.IOException;
-import java.util.Base64;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
+
+import java.util.Map;
 
 /**
  * Creates an <code>AwsProxyResponse</code> object given an <code>AwsHttpServletResponse</code> object. If the
@@ -35,26 +37,39 @@ public class AwsProxyHttpServletResponseWriter extends ResponseWriter<AwsHttpSer
     public AwsProxyResponse writeResponse(AwsHttpServletResponse containerResponse, Context lambdaContext)
             throws InvalidResponseObjectException {
         AwsProxyResponse awsProxyResponse = new AwsProxyResponse();
-        if (containerResponse.getAwsResponseBodyString() != null) {
-            String responseString;
+        Map<String, String> headers = containerResponse.getAwsResponseHeaders();
+        int statusCode = containerResponse.getStatus() <= 0 ? HttpServletResponse.SC_OK : containerResponse.getStatus();
+        AwsProxyHttpServletRequest request = containerResponse.getAwsRequest();
+
+        if (containerResponse.isCommitted() && request != null
+                && checkNotModified(containerResponse.getAwsResponseBodyBuffer(), statusCode, request.getMethod(),
+                                    request.getHeader(HttpHeaders.IF_NONE_MATCH), headers)) {
+            // the client already has this body, skip encoding it
+            statusCode = HttpServletResponse.SC_NOT_MODIFIED;
+        } else if (containerResponse.isCommitted()) {
+            String acceptEncoding = request == null ? null : request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            String responseString = compressBody(containerResponse.getAwsResponseBodyBuffer(), acceptEncoding, headers);
 
-            if (isValidUtf8(containerResponse.getAwsResponseBodyBytes())) {
+            if (responseString != null) {
+                awsProxyResponse.setBase64Encoded(true);
+            } else if (containerResponse.isAwsResponseBodyValidUtf8()) {
                 responseString = containerResponse.getAwsResponseBodyString();
             } else {
-                responseString = Base64.getMimeEncoder().encodeToString(containerResponse.getAwsResponseBodyBytes());
+                responseString = encodeBase64(containerResponse.getAwsResponseBodyBuffer());
                 awsProxyResponse.setBase64Encoded(true);
             }
 
             awsProxyResponse.setBody(responseString);
         }
-        awsProxyResponse.setHeaders(containerResponse.getAwsResponseHeaders());
-
-        if (containerResponse.getStatus() <= 0) {
-            awsProxyResponse.setStatusCode(200);
-        } else {
-            awsProxyResponse.setStatusCode(containerResponse.getStatus());
-        }
+        awsProxyResponse.setHeaders(headers);
+        awsProxyResponse.setStatusCode(statusCode);
 
         return awsProxyResponse;
     }
+
+
+    @Override
+    protected void releaseResponse(AwsHttpServletResponse containerResponse) {
+        containerResponse.releaseBuffer();
+    }
 }
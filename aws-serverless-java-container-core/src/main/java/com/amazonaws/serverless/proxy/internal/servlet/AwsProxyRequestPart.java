@@ -12,12 +12,20 @@
  */
 package com.amazonaws.serverless.proxy.internal.servlet;
 
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.disk.DiskFileItem;
+
 import javax.servlet.http.Part;
 import javax.ws.rs.core.MultivaluedHashMap;
 import java.io.ByteArrayInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 
 public class AwsProxyRequestPart
@@ -33,6 +41,7 @@ public class AwsProxyRequestPart
     private String contentType;
     private MultivaluedHashMap<String, String> headers;
     private byte[] content;
+    private FileItem fileItem;
 
 
     //-------------------------------------------------------------
@@ -44,6 +53,16 @@ public class AwsProxyRequestPart
     }
 
 
+    /**
+     * Creates a part backed by a parsed commons-fileupload item. The content is not copied: it is read from memory or,
+     * for items above the size threshold of the item factory, from the temporary file the item was written to.
+     * @param fileItem The parsed item
+     */
+    public AwsProxyRequestPart(FileItem fileItem) {
+        this.fileItem = fileItem;
+    }
+
+
     //-------------------------------------------------------------
     // Implementation - Part
     //-------------------------------------------------------------
@@ -51,6 +70,9 @@ public class AwsProxyRequestPart
 
     @Override
     public InputStream getInputStream() throws IOException {
+        if (fileItem != null) {
+            return fileItem.getInputStream();
+        }
         return new ByteArrayInputStream(content);
     }
 
@@ -81,18 +103,35 @@ public class AwsProxyRequestPart
 
     @Override
     public void write(String s) throws IOException {
-        FileOutputStream fos = new FileOutputStream(s);
-        try {
-            fos.write(content);
-        } finally {
-            fos.close();
+        Path target = Paths.get(s);
+        if (fileItem == null) {
+            Files.write(target, content);
+        } else if (fileItem.isInMemory()) {
+            Files.write(target, fileItem.get());
+        } else if (fileItem instanceof DiskFileItem) {
+            // let the file system copy the temporary file rather than pulling it through a buffer
+            try (FileChannel source = FileChannel.open(((DiskFileItem) fileItem).getStoreLocation().toPath(), StandardOpenOption.READ);
+                 FileChannel destination = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = 0;
+                long size = source.size();
+                while (position < size) {
+                    position += source.transferTo(position, size - position, destination);
+                }
+            }
+        } else {
+            try (InputStream input = fileItem.getInputStream()) {
+                Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+            }
         }
     }
 
 
     @Override
     public void delete() throws IOException {
-
+        if (fileItem != null) {
+            fileItem.delete();
+        }
     }
 
 
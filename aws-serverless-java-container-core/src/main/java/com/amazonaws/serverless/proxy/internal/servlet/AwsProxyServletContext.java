@@ -15,6 +15,7 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterRegistration;
@@ -36,11 +37,16 @@ import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.EventListener;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 
+/**
+ * The <code>ServletContext</code> shared by all requests handled in the Lambda function. The context does not hold any
+ * data from the request that created it: the stage of each request is exposed through the request's
+ * <code>getContextPath()</code> method, while the servlet context is the root context of the application.
+ */
 public class AwsProxyServletContext
         implements ServletContext {
 
@@ -56,8 +62,6 @@ public class AwsProxyServletContext
     // Variables - Private
     //-------------------------------------------------------------
 
-    private AwsProxyRequest awsProxyRequest;
-    private Context lambdaContext;
     private Map<String, Object> attributes;
     private Map<String, String> initParameters;
 
@@ -66,19 +70,16 @@ public class AwsProxyServletContext
     // Variables - Private - Static
     //-------------------------------------------------------------
 
-    private static AwsProxyServletContext instance;
+    private static volatile AwsProxyServletContext instance;
 
 
     //-------------------------------------------------------------
     // Constructors
     //-------------------------------------------------------------
 
-    private AwsProxyServletContext(AwsProxyRequest awsProxyRequest, Context lambdaContext) {
-        this.awsProxyRequest = awsProxyRequest;
-        this.lambdaContext = lambdaContext;
-
-        this.attributes = new HashMap<>();
-        this.initParameters = new HashMap<>();
+    private AwsProxyServletContext() {
+        this.attributes = new ConcurrentHashMap<>();
+        this.initParameters = new ConcurrentHashMap<>();
     }
 
 
@@ -89,7 +90,8 @@ public class AwsProxyServletContext
 
     @Override
     public String getContextPath() {
-        return "/" + awsProxyRequest.getRequestContext().getStage();
+        // the stage is specific to each request, see AwsProxyHttpServletRequest.getContextPath()
+        return "";
     }
 
 
@@ -186,21 +188,21 @@ public class AwsProxyServletContext
 
     @Override
     public void log(String s) {
-        lambdaContext.getLogger().log(s);
+        LambdaRuntime.getLogger().log(s);
     }
 
 
     @Override
     public void log(Exception e, String s) {
-        lambdaContext.getLogger().log(s);
-        lambdaContext.getLogger().log(e.getMessage());
+        LambdaRuntime.getLogger().log(s);
+        LambdaRuntime.getLogger().log(e.getMessage());
     }
 
 
     @Override
     public void log(String s, Throwable throwable) {
-        lambdaContext.getLogger().log(s);
-        lambdaContext.getLogger().log(throwable.getMessage());
+        LambdaRuntime.getLogger().log(s);
+        LambdaRuntime.getLogger().log(throwable.getMessage());
     }
 
 
@@ -249,6 +251,11 @@ public class AwsProxyServletContext
 
     @Override
     public void setAttribute(String s, Object o) {
+        // a null value is the same as removing the attribute
+        if (o == null) {
+            attributes.remove(s);
+            return;
+        }
         attributes.put(s, o);
     }
 
@@ -410,18 +417,45 @@ public class AwsProxyServletContext
         return null;
     }
 
+    /**
+     * @deprecated The shared servlet context is not tied to a request and no longer knows its stage. Read the stage of
+     *             the current request with <code>HttpServletRequest.getContextPath()</code> or
+     *             <code>AwsProxyRequest.getRequestContext().getStage()</code>
+     * @return Always null
+     */
+    @Deprecated
     public String getStage() {
-        return awsProxyRequest.getRequestContext().getStage();
+        return null;
     }
 
-    public static ServletContext getInstance(AwsProxyRequest request, Context lambdaContext) {
+
+    /**
+     * Returns the servlet context shared by all requests, the context is created by the first call to this method.
+     * @return The servlet context
+     */
+    public static ServletContext getInstance() {
         if (instance == null) {
-            instance = new AwsProxyServletContext(request, lambdaContext);
+            synchronized (AwsProxyServletContext.class) {
+                if (instance == null) {
+                    instance = new AwsProxyServletContext();
+                }
+            }
         }
 
         return instance;
     }
 
+    /**
+     * @deprecated The servlet context no longer depends on the request, use {@link #getInstance()}
+     * @param request Ignored
+     * @param lambdaContext Ignored
+     * @return The servlet context shared by all requests
+     */
+    @Deprecated
+    public static ServletContext getInstance(AwsProxyRequest request, Context lambdaContext) {
+        return getInstance();
+    }
+
     public static void clearServletContextCache() {
         instance = null;
     }
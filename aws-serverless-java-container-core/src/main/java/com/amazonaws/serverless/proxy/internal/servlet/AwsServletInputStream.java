@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * <code>ServletInputStream</code> for the body of a proxy request. The stream delegates single-byte and bulk reads
+ * directly to the body stream and notifies the <code>ReadListener</code>, if one is set, when the whole body has
+ * been read. The body is finished once the body stream returns the end of stream, or once the known length of the body
+ * has been read. The <code>available()</code> value of the body stream is not used because inflating streams only
+ * estimate it.
+ */
+class AwsServletInputStream extends ServletInputStream {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final int BUFFER_SIZE = 8192;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final InputStream bodyStream;
+    private final long length;
+    private long position;
+    private ReadListener listener;
+    private boolean finished;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * @param bodyStream The request body, its length is not known in advance
+     */
+    AwsServletInputStream(InputStream bodyStream) {
+        this(bodyStream, -1);
+    }
+
+
+    /**
+     * @param bodyStream The request body
+     * @param length The number of bytes in the body stream, -1 if it is not known in advance
+     */
+    AwsServletInputStream(InputStream bodyStream, long length) {
+        this.bodyStream = bodyStream;
+        this.length = length;
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - ServletInputStream
+    //-------------------------------------------------------------
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        listener = readListener;
+        try {
+            listener.onDataAvailable();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        int readByte = bodyStream.read();
+        if (readByte >= 0) {
+            position++;
+        }
+        checkFinished(readByte < 0);
+        return readByte;
+    }
+
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = bodyStream.read(b, off, len);
+        if (read > 0) {
+            position += read;
+        }
+        checkFinished(read < 0);
+        return read;
+    }
+
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = bodyStream.skip(n);
+        position += skipped;
+        checkFinished(false);
+        return skipped;
+    }
+
+
+    @Override
+    public int available() throws IOException {
+        return bodyStream.available();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        bodyStream.close();
+    }
+
+
+    /**
+     * Reads the rest of the body in one call
+     * @return The remaining bytes of the body, an empty array if the body has been read already
+     * @throws IOException If the body stream cannot be read
+     */
+    public byte[] readAllBytes() throws IOException {
+        // Lambda events are limited to a few megabytes, the remaining length fits in an int
+        ByteArrayOutputStream output = new ByteArrayOutputStream(length < 0 ? 32 : (int) Math.max(length - position, 32));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = bodyStream.read(buffer, 0, buffer.length)) != -1) {
+            output.write(buffer, 0, read);
+            position += read;
+        }
+        checkFinished(true);
+        return output.toByteArray();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void checkFinished(boolean endOfStream) throws IOException {
+        if (finished) {
+            return;
+        }
+        if (endOfStream || (length >= 0 && position >= length)) {
+            finished = true;
+            if (listener != null) {
+                listener.onAllDataRead();
+            }
+        }
+    }
+}
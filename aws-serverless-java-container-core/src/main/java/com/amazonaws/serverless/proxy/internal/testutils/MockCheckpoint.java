@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.testutils;
+
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Simulates the checkpoint and restore sequence of a snapshot-based runtime, such as CRaC or Lambda SnapStart, to test
+ * the <code>beforeCheckpoint</code> and <code>afterRestore</code> methods of container handlers locally. Like the
+ * CRaC global context, handlers are notified before the checkpoint in the reverse order of their registration and
+ * after the restore in the order of their registration. When a handler fails to prepare for the checkpoint, the
+ * checkpoint is aborted and the handlers that were already prepared are restored.
+ *
+ * <pre>
+ * {@code
+ *   new MockCheckpoint().register(handler).checkpointAndRestore();
+ * }
+ * </pre>
+ */
+public class MockCheckpoint {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final List<LambdaContainerHandler<?, ?, ?, ?>> handlers = new ArrayList<>();
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Registers a handler to be notified of the checkpoint and restore
+     * @param handler The container handler
+     * @return This object, for chaining
+     */
+    public MockCheckpoint register(LambdaContainerHandler<?, ?, ?, ?> handler) {
+        handlers.add(handler);
+        return this;
+    }
+
+
+    /**
+     * Calls <code>beforeCheckpoint</code> on the registered handlers, then <code>afterRestore</code>
+     * @throws ContainerInitializationException When a handler fails to prepare for the checkpoint or to restore
+     */
+    public void checkpointAndRestore() throws ContainerInitializationException {
+        checkpoint();
+        restore(handlers.size());
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void checkpoint() throws ContainerInitializationException {
+        for (int i = handlers.size() - 1; i >= 0; i--) {
+            try {
+                handlers.get(i).beforeCheckpoint();
+            } catch (ContainerInitializationException | RuntimeException e) {
+                // the checkpoint is aborted, the handlers that were already prepared resume normally
+                restore(handlers.size() - 1 - i);
+                throw e;
+            }
+        }
+    }
+
+
+    private void restore(int preparedHandlers) throws ContainerInitializationException {
+        for (int i = handlers.size() - preparedHandlers; i < handlers.size(); i++) {
+            handlers.get(i).afterRestore();
+        }
+    }
+}
@@ -22,6 +22,14 @@ import com.amazonaws.services.lambda.runtime.LambdaLogger;
  */
 public class MockLambdaContext implements Context {
 
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    // the maximum execution time of a Lambda function
+    private static final int DEFAULT_REMAINING_TIME_MILLIS = 300000;
+
+
     //-------------------------------------------------------------
     // Variables - Private - Static
     //-------------------------------------------------------------
@@ -84,7 +92,7 @@ public class MockLambdaContext implements Context {
 
     @Override
     public int getRemainingTimeInMillis() {
-        return 0;
+        return DEFAULT_REMAINING_TIME_MILLIS;
     }
 
 
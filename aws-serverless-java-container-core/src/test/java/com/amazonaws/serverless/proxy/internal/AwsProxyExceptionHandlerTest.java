@@ -1,6 +1,7 @@
 package com.amazonaws.serverless.proxy.internal;
 
 
+import com.amazonaws.serverless.exceptions.ContainerTimeoutException;
 import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
 import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
@@ -87,6 +88,15 @@ public class AwsProxyExceptionHandlerTest {
         assertEquals(MediaType.APPLICATION_JSON, resp.getHeaders().get(HttpHeaders.CONTENT_TYPE));
     }
 
+    @Test
+    public void typedHandle_ContainerTimeoutException_504State() {
+        AwsProxyResponse resp = exceptionHandler.handle(new ContainerTimeoutException(INVALID_RESPONSE_MESSAGE, ContainerMetrics.Phase.RESPONSE_WAIT));
+
+        assertNotNull(resp);
+        assertEquals(504, resp.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, resp.getHeaders().get(HttpHeaders.CONTENT_TYPE));
+    }
+
     @Test
     public void typedHandle_NullPointerException_responseObject()
             throws JsonProcessingException {
@@ -0,0 +1,206 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+
+public class AwsProxyResponseCacheTest {
+    private static final String BODY = "{\"pets\":[]}";
+
+    private long now = 1000000L;
+    private AwsProxyResponseCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new AwsProxyResponseCache() {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void put_maxAge_returnedUntilExpired() {
+        AwsProxyResponse response = response("max-age=60");
+        cache.put(get("/pets").build(), response);
+
+        assertEquals(BODY, cache.get(get("/pets").build()).getBody());
+        now += 59999;
+        assertEquals(BODY, cache.get(get("/pets").build()).getBody());
+        now += 1;
+        assertNull(cache.get(get("/pets").build()));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void put_notCacheable_notStored() {
+        cache.put(get("/pets").build(), new AwsProxyResponse(200, new HashMap<>(), BODY));
+        cache.put(get("/pets").build(), response("private, max-age=60"));
+        cache.put(get("/pets").build(), response("no-store"));
+        cache.put(get("/pets").build(), response("max-age=0"));
+        cache.put(get("/pets").build(), response("max-age=invalid"));
+
+        AwsProxyResponse notFound = response("max-age=60");
+        notFound.setStatusCode(404);
+        cache.put(get("/pets").build(), notFound);
+
+        AwsProxyResponse cookie = response("max-age=60");
+        cookie.addHeader("Set-Cookie", "session=1");
+        cache.put(get("/pets").build(), cookie);
+
+        AwsProxyResponse varyAll = response("max-age=60");
+        varyAll.addHeader("Vary", "*");
+        cache.put(get("/pets").build(), varyAll);
+
+        cache.put(new AwsProxyRequestBuilder("/pets", "POST").build(), response("max-age=60"));
+
+        assertNull(cache.get(get("/pets").build()));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void get_queryString_orderIndependentKey() {
+        AwsProxyResponse response = response("max-age=60");
+        cache.put(get("/pets").queryString("limit", "10").queryString("sort", "name").build(), response);
+
+        AwsProxyRequest request = get("/pets").build();
+        Map<String, String> query = new HashMap<>();
+        query.put("sort", "name");
+        query.put("limit", "10");
+        request.setQueryStringParameters(query);
+
+        assertEquals(BODY, cache.get(request).getBody());
+        assertNull(cache.get(get("/pets").queryString("limit", "20").queryString("sort", "name").build()));
+        assertNull(cache.get(get("/pets").build()));
+    }
+
+    @Test
+    public void get_varyHeader_keyedOnHeaderValues() {
+        AwsProxyResponse gzip = response("max-age=60");
+        gzip.addHeader("Vary", "Accept-Encoding");
+        gzip.setBody("gzip");
+        AwsProxyResponse identity = response("max-age=60");
+        identity.addHeader("Vary", "Accept-Encoding");
+        identity.setBody("identity");
+
+        cache.put(get("/pets").header("Accept-Encoding", "gzip").build(), gzip);
+        cache.put(get("/pets").build(), identity);
+
+        assertEquals("gzip", cache.get(get("/pets").header("accept-encoding", "gzip").build()).getBody());
+        assertEquals("identity", cache.get(get("/pets").build()).getBody());
+        assertNull(cache.get(get("/pets").header("Accept-Encoding", "br").build()));
+    }
+
+    @Test
+    public void get_hit_copyWithAgeHeader() {
+        AwsProxyResponse response = response("max-age=60");
+        cache.put(get("/pets").build(), response);
+        response.addHeader("X-Request-Id", "first");
+
+        now += 5500;
+        AwsProxyResponse hit = cache.get(get("/pets").build());
+        assertNotSame(response, hit);
+        assertNull(hit.getHeaders().get("X-Request-Id"));
+        assertEquals("5", hit.getHeaders().get("Age"));
+        assertEquals("max-age=60", hit.getHeaders().get("Cache-Control"));
+        hit.addHeader("Access-Control-Allow-Origin", "*");
+
+        AwsProxyResponse nextHit = cache.get(get("/pets").build());
+        assertNotSame(hit, nextHit);
+        assertNull(nextHit.getHeaders().get("Access-Control-Allow-Origin"));
+        assertEquals(BODY, nextHit.getBody());
+    }
+
+    @Test
+    public void get_requestDirectives_bypassCache() {
+        cache.put(get("/pets").build(), response("max-age=60"));
+
+        assertNull(cache.get(get("/pets").header("Cache-Control", "no-cache").build()));
+        assertNull(cache.get(get("/pets").header("Cache-Control", "max-age=0").build()));
+        assertNull(cache.get(get("/pets").header("Pragma", "no-cache").build()));
+        assertNull(cache.get(get("/pets").header("If-None-Match", "W/\"1\"").build()));
+        assertNotNull(cache.get(get("/pets").build()));
+    }
+
+    @Test
+    public void put_authorizedRequest_onlyStoredWhenShared() {
+        cache.put(get("/pets").header("Authorization", "Bearer token").build(), response("max-age=60"));
+        assertNull(cache.get(get("/pets").build()));
+
+        cache.put(get("/pets").header("Authorization", "Bearer token").build(), response("public, max-age=60"));
+        assertNotNull(cache.get(get("/pets").build()));
+
+        cache.put(get("/owners").header("Authorization", "Bearer token").build(), response("s-maxage=60"));
+        assertNotNull(cache.get(get("/owners").build()));
+    }
+
+    @Test
+    public void put_sharedMaxAge_overridesMaxAge() {
+        cache.put(get("/pets").build(), response("max-age=600, s-maxage=10"));
+
+        now += 10000;
+        assertNull(cache.get(get("/pets").build()));
+    }
+
+    @Test
+    public void excludeRoute_resourceOrPath_notCached() {
+        cache.excludeRoute("/pets/{petId}");
+        cache.excludeRoute("/owners");
+
+        AwsProxyRequest pet = get("/pets/1").build();
+        pet.setResource("/pets/{petId}");
+        cache.put(pet, response("max-age=60"));
+        cache.put(get("/owners").build(), response("max-age=60"));
+        cache.put(get("/pets").build(), response("max-age=60"));
+
+        assertNull(cache.get(pet));
+        assertNull(cache.get(get("/owners").build()));
+        assertNotNull(cache.get(get("/pets").build()));
+    }
+
+    @Test
+    public void setMaxSize_exceeded_evictsLeastRecentlyUsed() {
+        AwsProxyResponse response = response("max-age=60");
+        long entrySize = BODY.length() + "Cache-Control".length() + "max-age=60".length();
+        cache.setMaxSize(entrySize * 2);
+
+        cache.put(get("/a").build(), response);
+        cache.put(get("/b").build(), response);
+        assertNotNull(cache.get(get("/a").build()));
+        cache.put(get("/c").build(), response);
+
+        assertNotNull(cache.get(get("/a").build()));
+        assertNull(cache.get(get("/b").build()));
+        assertNotNull(cache.get(get("/c").build()));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(entrySize * 2, cache.getSize());
+
+        cache.setMaxSize(entrySize - 1);
+        assertEquals(0, cache.getSize());
+        cache.put(get("/a").build(), response);
+        assertNull(cache.get(get("/a").build()));
+    }
+
+    private static AwsProxyRequestBuilder get(String path) {
+        return new AwsProxyRequestBuilder(path, "GET");
+    }
+
+    private static AwsProxyResponse response(String cacheControl) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Cache-Control", cacheControl);
+        return new AwsProxyResponse(200, headers, BODY);
+    }
+}
@@ -0,0 +1,38 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ContainerRouteTest {
+    @Test
+    public void samplePath_staticPath_unchanged() {
+        assertEquals("/echo/headers", new ContainerRoute("get", "echo/headers").getSamplePath());
+        assertEquals("/", new ContainerRoute("GET", "/").getSamplePath());
+    }
+
+    @Test
+    public void samplePath_templateVariables_replaced() {
+        assertEquals("/pets/1", new ContainerRoute("GET", "/pets/{petId}").getSamplePath());
+        assertEquals("/pets/1/photos/1.jpg", new ContainerRoute("GET", "/pets/{petId}/photos/{name}.jpg").getSamplePath());
+    }
+
+    @Test
+    public void samplePath_templateWithRegex_replaced() {
+        assertEquals("/orders/1", new ContainerRoute("GET", "/orders/{id: [0-9]{3}}").getSamplePath());
+    }
+
+    @Test
+    public void samplePath_sparkParametersAndWildcards_replaced() {
+        assertEquals("/pets/1/1", new ContainerRoute("GET", "/pets/:petId/*").getSamplePath());
+        assertEquals("/static/1", new ContainerRoute("GET", "/static/**").getSamplePath());
+    }
+
+    @Test
+    public void httpMethod_lowerCase_normalized() {
+        assertEquals("GET", new ContainerRoute("get", "/pets").getHttpMethod());
+        assertEquals("GET /pets", new ContainerRoute("get", "/pets").toString());
+    }
+}
@@ -0,0 +1,528 @@
+package com.amazonaws.serverless.proxy.internal;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.exceptions.ContainerTimeoutException;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequest;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockCheckpoint;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+
+public class LambdaContainerHandlerTest {
+    private static final String RESPONSE_BODY = "{\"message\": \"hello\"}";
+    private static final String ROUTE_KEY = "/hello/{name}";
+
+    private static Context lambdaContext = new MockLambdaContext();
+    // leaves 100ms to the container with the default timeout margin
+    private static Context shortDeadlineContext = new MockLambdaContext() {
+        @Override
+        public int getRemainingTimeInMillis() {
+            return (int) LambdaContainerHandler.DEFAULT_RESPONSE_TIMEOUT_MARGIN_MILLIS + 100;
+        }
+    };
+
+    private TestContainerHandler handler;
+    private List<ContainerMetrics> collectedMetrics;
+
+    @Before
+    public void setUp() {
+        handler = new TestContainerHandler();
+        collectedMetrics = new ArrayList<>();
+    }
+
+    @Test
+    public void metrics_noListener_requestHandled() {
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(RESPONSE_BODY, response.getBody());
+    }
+
+    @Test
+    public void metrics_listener_receivesPhaseTimings() {
+        handler.setMetricsListener(collectedMetrics::add);
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/hello/bob", "POST").body("\u00fcmlaut").build();
+        request.setResource(ROUTE_KEY);
+
+        handler.proxy(request, lambdaContext);
+
+        assertEquals(1, collectedMetrics.size());
+        ContainerMetrics metrics = collectedMetrics.get(0);
+        assertEquals(ROUTE_KEY, metrics.getRouteKey());
+        assertEquals(7, metrics.getRequestBytes());
+        assertEquals(RESPONSE_BODY.length(), metrics.getResponseBytes());
+        assertNull(metrics.getException());
+        assertTrue(metrics.getPhaseNanos(ContainerMetrics.Phase.HANDLE_REQUEST) > 0);
+        assertTrue(metrics.getPhaseNanos(ContainerMetrics.Phase.WRITE_RESPONSE) > 0);
+
+        long phaseSum = 0;
+        for (ContainerMetrics.Phase phase : ContainerMetrics.Phase.values()) {
+            phaseSum += metrics.getPhaseNanos(phase);
+        }
+        assertTrue(metrics.getTotalNanos() >= phaseSum);
+        assertEquals(metrics.getTotalNanos() - metrics.getPhaseNanos(ContainerMetrics.Phase.HANDLE_REQUEST),
+                     metrics.getContainerOverheadNanos());
+    }
+
+    @Test
+    public void metrics_failingRequest_exceptionReported() {
+        handler.setMetricsListener(collectedMetrics::add);
+        handler.failure = new IllegalStateException("application failure");
+
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+
+        assertEquals(502, response.getStatusCode());
+        assertEquals(1, collectedMetrics.size());
+        assertSame(handler.failure, collectedMetrics.get(0).getException());
+        assertEquals(0, collectedMetrics.get(0).getPhaseNanos(ContainerMetrics.Phase.WRITE_RESPONSE));
+    }
+
+    @Test
+    public void metrics_failingListener_responseUnaffected() {
+        handler.setMetricsListener(metrics -> {
+            throw new RuntimeException("listener failure");
+        });
+
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    public void timeout_responseNeverCommitted_expect504() {
+        handler.setMetricsListener(collectedMetrics::add);
+        handler.commitResponse = false;
+
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), shortDeadlineContext);
+
+        assertEquals(504, response.getStatusCode());
+        assertTrue(collectedMetrics.get(0).getException() instanceof ContainerTimeoutException);
+        assertEquals(ContainerMetrics.Phase.RESPONSE_WAIT, ((ContainerTimeoutException) collectedMetrics.get(0).getException()).getPhase());
+    }
+
+    @Test
+    public void timeout_responseCommittedFromOtherThread_validResponse() {
+        handler.commitDelayMillis = 20;
+
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), shortDeadlineContext);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(RESPONSE_BODY, response.getBody());
+    }
+
+    @Test
+    public void timeout_requestAfterTimeout_validResponse() {
+        handler.commitResponse = false;
+        assertEquals(504, handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), shortDeadlineContext).getStatusCode());
+
+        handler.commitResponse = true;
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), shortDeadlineContext);
+
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    public void eTag_ifNoneMatch_notModifiedWithoutBody() {
+        AwsProxyHttpServletResponseWriter responseWriter = new AwsProxyHttpServletResponseWriter();
+        responseWriter.setETagEnabled(true);
+        handler = new TestContainerHandler(responseWriter);
+
+        AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+        assertEquals(200, response.getStatusCode());
+        String eTag = response.getHeaders().get("ETag");
+        assertNotNull(eTag);
+
+        response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").header("If-None-Match", eTag).build(), lambdaContext);
+        assertEquals(304, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(eTag, response.getHeaders().get("ETag"));
+
+        response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "POST").header("If-None-Match", eTag).build(), lambdaContext);
+        assertEquals(200, response.getStatusCode());
+        assertEquals(RESPONSE_BODY, response.getBody());
+    }
+
+    @Test
+    public void responseCache_cacheableResponse_handleRequestSkipped() {
+        AwsProxyResponseCache cache = new AwsProxyResponseCache();
+        handler.setResponseCache(cache);
+        handler.setMetricsListener(collectedMetrics::add);
+        handler.cacheControl = "max-age=60";
+
+        AwsProxyResponse first = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+        AwsProxyResponse second = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+        handler.proxy(new AwsProxyRequestBuilder("/hello/alice", "GET").build(), lambdaContext);
+
+        assertEquals(2, handler.requestCount);
+        assertEquals(first.getBody(), second.getBody());
+        assertNotNull(second.getHeaders().get("Age"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertFalse(collectedMetrics.get(0).isCacheHit());
+        assertTrue(collectedMetrics.get(1).isCacheHit());
+        assertEquals(RESPONSE_BODY.length(), collectedMetrics.get(1).getResponseBytes());
+        assertEquals(0, collectedMetrics.get(1).getPhaseNanos(ContainerMetrics.Phase.HANDLE_REQUEST));
+    }
+
+    @Test
+    public void responseCache_noCacheControl_alwaysHandled() {
+        handler.setResponseCache(new AwsProxyResponseCache());
+
+        handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+        handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+
+        assertEquals(2, handler.requestCount);
+    }
+
+    @Test
+    public void responseBufferPool_warmRequests_bufferReused() {
+        for (int i = 0; i < 5; i++) {
+            AwsProxyResponse response = handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), lambdaContext);
+            assertEquals(RESPONSE_BODY, response.getBody());
+        }
+
+        assertEquals(1, handler.getResponseBufferPool().getAllocationCount());
+        assertEquals(1, handler.getResponseBufferPool().getPooledBufferCount());
+    }
+
+    @Test
+    public void responseBufferPool_timeout_bufferNotReturned() {
+        handler.commitResponse = false;
+        handler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").build(), shortDeadlineContext);
+
+        assertEquals(0, handler.getResponseBufferPool().getPooledBufferCount());
+    }
+
+    @Test
+    public void concurrency_manyThreads_eachResponseMatchesItsRequest() throws Exception {
+        handler.echoRequest = true;
+        List<ContainerMetrics> metrics = Collections.synchronizedList(collectedMetrics);
+        handler.setMetricsListener(metrics::add);
+
+        int threads = 8;
+        int requestsPerThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                results.add(executor.submit((Callable<Void>) () -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        String id = thread + "-" + i;
+                        AwsProxyRequest request = new AwsProxyRequestBuilder("/hello/" + id, "GET")
+                                .header("X-Request-Id", id)
+                                .authorizerPrincipal("user-" + id)
+                                .build();
+
+                        AwsProxyResponse response = handler.proxy(request, lambdaContext);
+                        assertEquals(200, response.getStatusCode());
+                        assertEquals(id + ":user-" + id + ":/hello/" + id, response.getBody());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * requestsPerThread, metrics.size());
+        assertTrue(handler.getResponseBufferPool().getPooledBufferCount() <= ResponseBufferPool.DEFAULT_MAX_POOLED_BUFFERS);
+    }
+
+    @Test
+    public void proxyBatch_manyRequests_responsesInRequestOrder() {
+        handler.echoRequest = true;
+        handler.setBatchParallelism(4);
+
+        List<AwsProxyRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            requests.add(new AwsProxyRequestBuilder("/hello/" + i, "GET")
+                                 .header("X-Request-Id", "r" + i)
+                                 .authorizerPrincipal("user-" + i)
+                                 .build());
+        }
+        List<AwsProxyResponse> responses = handler.proxyBatch(requests, lambdaContext);
+
+        assertEquals(requests.size(), responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            assertEquals(200, responses.get(i).getStatusCode());
+            assertEquals("r" + i + ":user-" + i + ":/hello/" + i, responses.get(i).getBody());
+        }
+    }
+
+    @Test
+    public void proxyBatch_failingRequest_otherResponsesUnaffected() {
+        handler.failingPath = "/hello/bad";
+        handler.setBatchParallelism(2);
+
+        List<AwsProxyResponse> responses = handler.proxyBatch(Arrays.asList(new AwsProxyRequestBuilder("/hello/bob", "GET").build(),
+                                                                            new AwsProxyRequestBuilder("/hello/bad", "GET").build(),
+                                                                            new AwsProxyRequestBuilder("/hello/alice", "GET").build()),
+                                                              lambdaContext);
+
+        assertEquals(3, responses.size());
+        assertEquals(200, responses.get(0).getStatusCode());
+        assertEquals(502, responses.get(1).getStatusCode());
+        assertEquals(200, responses.get(2).getStatusCode());
+        assertEquals(RESPONSE_BODY, responses.get(2).getBody());
+    }
+
+    @Test
+    public void proxyBatch_requestTimeout_slowRequestsAnswered504() {
+        handler.commitDelayMillis = 1000;
+        handler.setBatchRequestTimeout(LambdaContainerHandler.DEFAULT_RESPONSE_TIMEOUT_MARGIN_MILLIS + 100);
+
+        long start = System.currentTimeMillis();
+        List<AwsProxyResponse> responses = handler.proxyBatch(Arrays.asList(new AwsProxyRequestBuilder("/hello/bob", "GET").build(),
+                                                                            new AwsProxyRequestBuilder("/hello/alice", "GET").build()),
+                                                              lambdaContext);
+
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(504, responses.get(0).getStatusCode());
+        assertEquals(504, responses.get(1).getStatusCode());
+    }
+
+    @Test
+    public void proxyBatch_parallelismChangedConcurrently_allRequestsHandled() throws Exception {
+        List<AwsProxyRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(new AwsProxyRequestBuilder("/hello/" + i, "GET").build());
+        }
+
+        ExecutorService resizer = Executors.newSingleThreadExecutor();
+        Future<?> resizing = resizer.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+                handler.setBatchParallelism(1 + i % 4);
+            }
+        });
+        try {
+            while (!resizing.isDone()) {
+                for (AwsProxyResponse response : handler.proxyBatch(requests, lambdaContext)) {
+                    assertEquals(200, response.getStatusCode());
+                }
+            }
+            resizing.get();
+        } finally {
+            resizer.shutdown();
+        }
+    }
+
+    @Test
+    public void proxyBatch_emptyList_noResponses() {
+        assertTrue(handler.proxyBatch(Collections.emptyList(), lambdaContext).isEmpty());
+    }
+
+    @Test
+    public void warmup_requests_handledWithoutMetricsOrCache() {
+        handler.setMetricsListener(collectedMetrics::add);
+        handler.cacheControl = "public, max-age=60";
+        AwsProxyResponseCache cache = new AwsProxyResponseCache();
+        handler.setResponseCache(cache);
+
+        handler.warmup(Arrays.asList(new AwsProxyRequestBuilder("/hello/bob", "GET").build(),
+                                     new AwsProxyRequestBuilder("/hello/alice", "GET").build()));
+
+        assertEquals(2, handler.requestCount);
+        assertTrue(collectedMetrics.isEmpty());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void warmup_failingRequest_warmupContinues() {
+        handler.failingPath = "/hello/bad";
+
+        handler.warmup(Arrays.asList(new AwsProxyRequestBuilder("/hello/bad", "GET").build(),
+                                     new AwsProxyRequestBuilder("/hello/bob", "GET").build()));
+
+        assertEquals(2, handler.requestCount);
+    }
+
+    @Test
+    public void warmup_noRoutes_nothingHandled() throws ContainerInitializationException {
+        handler.warmup();
+
+        assertEquals(0, handler.requestCount);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void securityContext_afterRequest_notKeptOnThread() {
+        final List<Object> contextsDuringRequest = new ArrayList<>();
+        TestContainerHandler capturingHandler = new TestContainerHandler() {
+            @Override
+            protected void handleRequest(AwsProxyHttpServletRequest containerRequest, AwsHttpServletResponse containerResponse,
+                                         Context lambdaContext) throws Exception {
+                contextsDuringRequest.add(AwsProxySecurityContextWriter.getCurrentContext());
+                super.handleRequest(containerRequest, containerResponse, lambdaContext);
+            }
+        };
+
+        capturingHandler.proxy(new AwsProxyRequestBuilder("/hello/bob", "GET").authorizerPrincipal("bob").build(), lambdaContext);
+
+        assertNotNull(contextsDuringRequest.get(0));
+        assertNull(AwsProxySecurityContextWriter.getCurrentContext());
+    }
+
+    @Test
+    public void checkpoint_warmupRequests_handledAndBuffersDropped() throws ContainerInitializationException {
+        handler.setCheckpointWarmupRequests(Collections.singletonList(new AwsProxyRequestBuilder("/hello/bob", "GET").build()));
+
+        handler.beforeCheckpoint();
+
+        assertEquals(1, handler.requestCount);
+        assertEquals(0, handler.getResponseBufferPool().getPooledBufferCount());
+    }
+
+    @Test
+    public void checkpoint_restore_batchStillHandled() throws ContainerInitializationException {
+        handler.setBatchParallelism(2);
+        List<AwsProxyRequest> requests = Arrays.asList(new AwsProxyRequestBuilder("/hello/bob", "GET").build(),
+                                                       new AwsProxyRequestBuilder("/hello/alice", "GET").build());
+        handler.proxyBatch(requests, lambdaContext);
+
+        new MockCheckpoint().register(handler).checkpointAndRestore();
+        List<AwsProxyResponse> responses = handler.proxyBatch(requests, lambdaContext);
+
+        assertEquals(200, responses.get(0).getStatusCode());
+        assertEquals(200, responses.get(1).getStatusCode());
+    }
+
+    @Test
+    public void checkpoint_restore_startupTimelineRestarted() throws ContainerInitializationException {
+        StartupTimeline.getInstance().start("test.beforeSnapshot").close();
+
+        new MockCheckpoint().register(handler).checkpointAndRestore();
+
+        List<StartupTimeline.Step> steps = StartupTimeline.getInstance().getSteps();
+        assertEquals(1, steps.size());
+        assertEquals("container.afterRestore", steps.get(0).getName());
+        assertFalse(StartupTimeline.getInstance().isLogged());
+    }
+
+    @Test
+    public void checkpoint_failingHandler_preparedHandlersRestored() {
+        final List<String> calls = new ArrayList<>();
+        TestContainerHandler first = new TestContainerHandler() {
+            @Override
+            public void beforeCheckpoint() throws ContainerInitializationException {
+                throw new ContainerInitializationException("Cannot checkpoint", null);
+            }
+        };
+        TestContainerHandler second = new TestContainerHandler() {
+            @Override
+            public void beforeCheckpoint() {
+                calls.add("beforeCheckpoint");
+            }
+
+            @Override
+            public void afterRestore() {
+                calls.add("afterRestore");
+            }
+        };
+
+        try {
+            new MockCheckpoint().register(first).register(second).checkpointAndRestore();
+            fail("The checkpoint should have failed");
+        } catch (ContainerInitializationException e) {
+            assertEquals(Arrays.asList("beforeCheckpoint", "afterRestore"), calls);
+        }
+    }
+
+
+    /**
+     * Minimal servlet-based container that writes a fixed JSON body, or throws the configured failure
+     */
+    private static class TestContainerHandler
+            extends LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, AwsProxyHttpServletRequest, AwsHttpServletResponse> {
+        private Exception failure;
+        private boolean commitResponse = true;
+        private long commitDelayMillis;
+        private String cacheControl;
+        private boolean echoRequest;
+        private String failingPath;
+        private int requestCount;
+
+        TestContainerHandler() {
+            this(new AwsProxyHttpServletResponseWriter());
+        }
+
+        TestContainerHandler(AwsProxyHttpServletResponseWriter responseWriter) {
+            super(new AwsProxyHttpServletRequestReader(),
+                  responseWriter,
+                  new AwsProxySecurityContextWriter(),
+                  new AwsProxyExceptionHandler());
+        }
+
+        @Override
+        protected AwsHttpServletResponse getContainerResponse(AwsProxyHttpServletRequest containerRequest, ResponseLatch latch) {
+            return new AwsHttpServletResponse(containerRequest, latch, getResponseBufferPool());
+        }
+
+        @Override
+        protected void handleRequest(AwsProxyHttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext)
+                throws Exception {
+            requestCount++;
+            if (failure != null) {
+                throw failure;
+            }
+            if (containerRequest.getPathInfo().equals(failingPath)) {
+                throw new IllegalStateException("Failing request " + failingPath);
+            }
+
+            containerResponse.setStatus(200);
+            containerResponse.setContentType("application/json");
+            if (cacheControl != null) {
+                containerResponse.setHeader("Cache-Control", cacheControl);
+            }
+            PrintWriter writer = containerResponse.getWriter();
+            if (echoRequest) {
+                writer.write(containerRequest.getHeader("X-Request-Id") + ":" + containerRequest.getUserPrincipal().getName()
+                             + ":" + containerRequest.getPathInfo());
+            } else {
+                writer.write(RESPONSE_BODY);
+            }
+            writer.flush();
+
+            if (!commitResponse) {
+                return;
+            }
+            if (commitDelayMillis > 0) {
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(commitDelayMillis);
+                        containerResponse.flushBuffer();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }).start();
+                return;
+            }
+            containerResponse.flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+
+public class RequestBodyTest {
+    private static final String TEXT = "{\"name\":\"Bailey \uD83D\uDC36\",\"city\":\"M\u00fcnchen\"}";
+
+    @Test
+    public void getInputStream_nullBody_empty() throws IOException {
+        RequestBody body = new RequestBody(null, false);
+        assertTrue(body.isEmpty());
+        assertEquals(-1, body.getInputStream(StandardCharsets.UTF_8).read());
+        assertEquals(-1, body.getReader(StandardCharsets.UTF_8).read());
+        assertEquals(-1, new RequestBody(null, true).getInputStream(StandardCharsets.UTF_8).read());
+    }
+
+    @Test
+    public void getInputStream_textBody_encodedWithCharset() throws IOException {
+        RequestBody body = new RequestBody(TEXT, false);
+        assertArrayEquals(TEXT.getBytes(StandardCharsets.UTF_8), read(body.getInputStream(StandardCharsets.UTF_8)));
+        assertArrayEquals(TEXT.getBytes(StandardCharsets.UTF_8), read(body.getInputStream(StandardCharsets.UTF_8)));
+        assertArrayEquals(TEXT.getBytes(StandardCharsets.UTF_16), read(body.getInputStream(StandardCharsets.UTF_16)));
+    }
+
+    @Test
+    public void getReader_textBody_readsString() throws IOException {
+        assertEquals(TEXT, new BufferedReader(new RequestBody(TEXT, false).getReader(StandardCharsets.ISO_8859_1)).readLine());
+    }
+
+    @Test
+    public void getInputStream_base64Body_matchesJdkDecoder() throws IOException {
+        Random random = new Random(42);
+        for (int size : new int[] { 1, 2, 3, 4, 5, 1024, 8191, 100000 }) {
+            byte[] content = new byte[size];
+            random.nextBytes(content);
+            String encoded = Base64.getEncoder().encodeToString(content);
+
+            RequestBody body = new RequestBody(encoded, true);
+            assertArrayEquals(content, read(body.getInputStream(StandardCharsets.UTF_8)));
+            assertArrayEquals(content, read(body.getInputStream(StandardCharsets.ISO_8859_1)));
+
+            String unpadded = Base64.getEncoder().withoutPadding().encodeToString(content);
+            assertArrayEquals(content, read(new RequestBody(unpadded, true).getInputStream(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void getReader_base64Body_decodedWithCharset() throws IOException {
+        RequestBody body = new RequestBody(Base64.getEncoder().encodeToString(TEXT.getBytes(StandardCharsets.UTF_8)), true);
+        assertEquals(TEXT, new BufferedReader(body.getReader(StandardCharsets.UTF_8)).readLine());
+    }
+
+    @Test
+    public void getInputStream_malformedBase64_throwsIOException() {
+        for (String malformed : new String[] { "a", "ab$d", "YWJj\u00e9ZGVm", "YQ==YQ==" }) {
+            try {
+                new RequestBody(malformed, true).getInputStream(StandardCharsets.UTF_8);
+                fail("Expected " + malformed + " to be rejected");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void getInputStream_gzipBody_inflated() throws IOException {
+        byte[] content = repeatedText(10000);
+        RequestBody body = new RequestBody(Base64.getEncoder().encodeToString(gzip(content)), true);
+        body.setContentEncoding("GZIP ");
+        assertArrayEquals(content, read(body.getInputStream(StandardCharsets.UTF_8)));
+        assertArrayEquals(content, read(body.getInputStream(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void getInputStream_deflateBody_inflated() throws IOException {
+        byte[] content = repeatedText(10000);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream output = new DeflaterOutputStream(compressed)) {
+            output.write(content);
+        }
+        RequestBody body = new RequestBody(Base64.getEncoder().encodeToString(compressed.toByteArray()), true);
+        body.setContentEncoding("deflate");
+        assertArrayEquals(content, read(body.getInputStream(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void getReader_gzipBody_inflatedAndDecoded() throws IOException {
+        RequestBody body = new RequestBody(Base64.getEncoder().encodeToString(gzip(TEXT.getBytes(StandardCharsets.UTF_8))), true);
+        body.setContentEncoding("gzip");
+        assertEquals(TEXT, new BufferedReader(body.getReader(StandardCharsets.UTF_8)).readLine());
+    }
+
+    @Test
+    public void getInputStream_inflatedAboveMaxSize_throwsIOException() throws IOException {
+        RequestBody body = new RequestBody(Base64.getEncoder().encodeToString(gzip(new byte[100000])), true);
+        body.setContentEncoding("gzip");
+        body.setMaxInflatedSize(50000);
+        try {
+            read(body.getInputStream(StandardCharsets.UTF_8));
+            fail("Expected the inflated body to exceed the maximum size");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("50000"));
+        }
+
+        body.setMaxInflatedSize(100000);
+        assertEquals(100000, read(body.getInputStream(StandardCharsets.UTF_8)).length);
+    }
+
+    @Test
+    public void getInputStream_otherContentEncodings_passedThrough() throws IOException {
+        RequestBody body = new RequestBody(TEXT, false);
+        body.setContentEncoding("identity");
+        assertEquals(TEXT, new BufferedReader(body.getReader(StandardCharsets.UTF_8)).readLine());
+
+        body.setContentEncoding("br");
+        assertArrayEquals(TEXT.getBytes(StandardCharsets.UTF_8), read(body.getInputStream(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] repeatedText(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] read(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,168 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class ResponseBodyOutputStreamTest {
+    private static final String TEXT = "{\"name\":\"Bailey \uD83D\uDC36\",\"city\":\"M\u00fcnchen\",\"note\":\"\u65e5\u672c\u8a9e\"}";
+
+    @Test
+    public void write_emptyBody_validUtf8() {
+        assertTrue(new ResponseBodyOutputStream().isValidUtf8());
+    }
+
+    @Test
+    public void write_sequenceSplitAcrossWrites_validUtf8() {
+        byte[] text = TEXT.getBytes(StandardCharsets.UTF_8);
+        for (int split = 0; split <= text.length; split++) {
+            ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+            body.write(text, 0, split);
+            body.write(text, split, text.length - split);
+            assertTrue("Split at " + split, body.isValidUtf8());
+            assertArrayEquals(text, body.toByteArray());
+        }
+    }
+
+    @Test
+    public void write_singleBytes_validUtf8() {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        for (byte b : TEXT.getBytes(StandardCharsets.UTF_8)) {
+            body.write(b);
+        }
+        assertTrue(body.isValidUtf8());
+    }
+
+    @Test
+    public void write_truncatedSequence_invalidUntilCompleted() {
+        byte[] emoji = "\uD83D\uDC36".getBytes(StandardCharsets.UTF_8);
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        body.write(emoji, 0, 2);
+        assertFalse(body.isValidUtf8());
+        body.write(emoji, 2, 2);
+        assertTrue(body.isValidUtf8());
+    }
+
+    @Test
+    public void write_binaryContent_invalidUtf8() {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        body.write(TEXT.getBytes(StandardCharsets.UTF_8), 0, 8);
+        body.write(0xFF);
+        body.write('a');
+        assertFalse(body.isValidUtf8());
+    }
+
+    @Test
+    public void write_randomChunks_matchesResponseWriterCheck() {
+        Random random = new Random(42);
+        ResponseWriterTestHelper writer = new ResponseWriterTestHelper();
+        for (int i = 0; i < 2000; i++) {
+            byte[] input = new byte[random.nextInt(32)];
+            for (int j = 0; j < input.length; j++) {
+                int kind = random.nextInt(3);
+                input[j] = (byte)(kind == 0 ? random.nextInt(0x80) : kind == 1 ? 0x80 + random.nextInt(0x40) : 0xC0 + random.nextInt(0x40));
+            }
+            ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+            int offset = 0;
+            while (offset < input.length) {
+                int length = Math.min(input.length - offset, 1 + random.nextInt(5));
+                body.write(input, offset, length);
+                offset += length;
+            }
+            assertEquals(Arrays.toString(input), writer.isValidUtf8(input), body.isValidUtf8());
+        }
+    }
+
+    @Test
+    public void newWriter_utf8_validAndEncoded() throws IOException {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        Writer writer = body.newWriter(StandardCharsets.UTF_8);
+        writer.write(TEXT);
+        writer.flush();
+        assertTrue(body.isValidUtf8());
+        assertArrayEquals(TEXT.getBytes(StandardCharsets.UTF_8), body.toByteArray());
+    }
+
+    @Test
+    public void newWriter_afterIncompleteRawWrite_invalidUtf8() throws IOException {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        body.write(0xC3);
+        Writer writer = body.newWriter(StandardCharsets.UTF_8);
+        writer.write("abc");
+        writer.flush();
+        assertFalse(body.isValidUtf8());
+    }
+
+    @Test
+    public void newWriter_latin1_scansOutput() throws IOException {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        Writer writer = body.newWriter(StandardCharsets.ISO_8859_1);
+        writer.write("M\u00fcnchen");
+        writer.flush();
+        assertFalse(body.isValidUtf8());
+    }
+
+    @Test
+    public void reset_invalidBody_validAgain() {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        body.write(0xFF);
+        assertFalse(body.isValidUtf8());
+        body.reset();
+        assertTrue(body.isValidUtf8());
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    public void toString_calledTwice_decodesOnce() {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream();
+        byte[] text = TEXT.getBytes(StandardCharsets.UTF_8);
+        body.write(text, 0, text.length);
+
+        String decoded = body.toString(StandardCharsets.UTF_8);
+        assertEquals(TEXT, decoded);
+        assertSame(decoded, body.toString(StandardCharsets.UTF_8));
+
+        body.write('!');
+        assertEquals(TEXT + "!", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toByteBuffer_sharesContent_readOnly() {
+        ResponseBodyOutputStream body = new ResponseBodyOutputStream(64);
+        byte[] text = TEXT.getBytes(StandardCharsets.UTF_8);
+        body.write(text, 0, text.length);
+
+        ByteBuffer view = body.toByteBuffer();
+        assertTrue(view.isReadOnly());
+        assertEquals(text.length, view.remaining());
+        byte[] content = new byte[view.remaining()];
+        view.get(content);
+        assertArrayEquals(text, content);
+
+        try {
+            view.put(0, (byte)'a');
+            fail("The body view should be read-only");
+        } catch (ReadOnlyBufferException e) {
+            // expected
+        }
+    }
+
+    private static class ResponseWriterTestHelper extends ResponseWriter<Object, Object> {
+        @Override
+        protected Object writeResponse(Object containerResponse, Context lambdaContext) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ResponseBufferPoolTest {
+
+    @Test
+    public void acquire_afterRelease_reusesEmptyBuffer() {
+        ResponseBufferPool pool = new ResponseBufferPool();
+        ResponseBodyOutputStream buffer = pool.acquire();
+        buffer.write(new byte[] { 1, 2, 3 }, 0, 3);
+        pool.release(buffer);
+
+        ResponseBodyOutputStream reused = pool.acquire();
+        assertSame(buffer, reused);
+        assertEquals(0, reused.size());
+        assertTrue(reused.isValidUtf8());
+        assertEquals(1, pool.getAllocationCount());
+    }
+
+    @Test
+    public void acquire_recentLargeResponse_sizedFromHistory() {
+        ResponseBufferPool pool = new ResponseBufferPool();
+        ResponseBodyOutputStream buffer = pool.acquire();
+        assertEquals(ResponseBufferPool.DEFAULT_INITIAL_CAPACITY, buffer.capacity());
+
+        byte[] body = new byte[5000];
+        buffer.write(body, 0, body.length);
+        pool.release(buffer);
+
+        assertTrue(pool.acquire().capacity() >= body.length);
+        assertEquals(body.length, pool.acquire().capacity());
+    }
+
+    @Test
+    public void release_twice_pooledOnce() {
+        ResponseBufferPool pool = new ResponseBufferPool();
+        ResponseBodyOutputStream buffer = pool.acquire();
+        pool.release(buffer);
+        pool.release(buffer);
+        pool.release(null);
+
+        assertEquals(1, pool.getPooledBufferCount());
+    }
+
+    @Test
+    public void release_poolFull_bufferDropped() {
+        ResponseBufferPool pool = new ResponseBufferPool();
+        pool.setMaxPooledBuffers(1);
+        ResponseBodyOutputStream first = pool.acquire();
+        ResponseBodyOutputStream second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.getPooledBufferCount());
+        assertEquals(2, pool.getAllocationCount());
+    }
+
+    @Test
+    public void setMemoryLimitInMB_smallFunction_oversizedBufferDropped() {
+        ResponseBufferPool pool = new ResponseBufferPool();
+        assertEquals(ResponseBufferPool.DEFAULT_MAX_BUFFER_CAPACITY, pool.getMaxBufferCapacity());
+        pool.setMemoryLimitInMB(0);
+        assertEquals(ResponseBufferPool.DEFAULT_MAX_BUFFER_CAPACITY, pool.getMaxBufferCapacity());
+
+        pool.setMemoryLimitInMB(128);
+        assertEquals(4 * 1024 * 1024, pool.getMaxBufferCapacity());
+
+        ResponseBodyOutputStream buffer = pool.acquire();
+        buffer.ensureCapacity(pool.getMaxBufferCapacity() + 1);
+        pool.release(buffer);
+        assertEquals(0, pool.getPooledBufferCount());
+        // the history still records the large body, new buffers are capped
+        assertEquals(ResponseBufferPool.DEFAULT_INITIAL_CAPACITY, pool.acquire().capacity());
+    }
+}
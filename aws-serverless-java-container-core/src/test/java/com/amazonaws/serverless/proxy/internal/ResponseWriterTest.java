@@ -0,0 +1,322 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+
+public class ResponseWriterTest {
+    private static final String ASCII_JSON = "{\"id\":\"4f1a2f5c\",\"name\":\"Bailey\",\"breed\":\"Beagle\"}";
+
+    private TestResponseWriter responseWriter = new TestResponseWriter();
+
+    @Test
+    public void isValidUtf8_ascii_valid() {
+        assertTrue(responseWriter.isValidUtf8(utf8(ASCII_JSON)));
+        assertTrue(responseWriter.isValidUtf8(new byte[0]));
+    }
+
+    @Test
+    public void isValidUtf8_multiByteCharacters_valid() {
+        assertTrue(responseWriter.isValidUtf8(utf8("caf\u00e9")));
+        assertTrue(responseWriter.isValidUtf8(utf8("\u65e5\u672c\u8a9e")));
+        assertTrue(responseWriter.isValidUtf8(utf8("\ufeff" + ASCII_JSON)));
+    }
+
+    @Test
+    public void isValidUtf8_fourByteCharacters_valid() {
+        assertTrue(responseWriter.isValidUtf8(utf8("{\"name\":\"Bailey \uD83D\uDC36\"}")));
+        assertTrue(responseWriter.isValidUtf8(bytes(0xF4, 0x8F, 0xBF, 0xBF)));
+    }
+
+    @Test
+    public void isValidUtf8_nonAsciiAtEveryAlignment_valid() {
+        for (int i = 0; i < 17; i++) {
+            char[] padding = new char[i];
+            Arrays.fill(padding, 'a');
+            assertTrue(responseWriter.isValidUtf8(utf8(new String(padding) + "\uD83D\uDC36" + ASCII_JSON)));
+        }
+    }
+
+    @Test
+    public void isValidUtf8_overlongEncodings_invalid() {
+        assertFalse(responseWriter.isValidUtf8(bytes(0xC0, 0xAF)));
+        assertFalse(responseWriter.isValidUtf8(bytes(0xE0, 0x80, 0xAF)));
+        assertFalse(responseWriter.isValidUtf8(bytes(0xF0, 0x80, 0x80, 0xAF)));
+    }
+
+    @Test
+    public void isValidUtf8_surrogatesAndOutOfRange_invalid() {
+        assertFalse(responseWriter.isValidUtf8(bytes(0xED, 0xA0, 0x80)));
+        assertFalse(responseWriter.isValidUtf8(bytes(0xF4, 0x90, 0x80, 0x80)));
+        assertFalse(responseWriter.isValidUtf8(bytes(0xF5, 0x80, 0x80, 0x80)));
+        assertFalse(responseWriter.isValidUtf8(bytes(0xFF)));
+    }
+
+    @Test
+    public void isValidUtf8_truncatedSequence_invalidWithoutException() {
+        byte[] emoji = utf8("aaaaaaa\uD83D\uDC36");
+        for (int length = 8; length < emoji.length; length++) {
+            assertFalse(responseWriter.isValidUtf8(Arrays.copyOf(emoji, length)));
+        }
+        assertFalse(responseWriter.isValidUtf8(bytes(0x80)));
+    }
+
+    @Test
+    public void isValidUtf8_range_onlyChecksRange() {
+        byte[] input = utf8("\uD83D\uDC36" + ASCII_JSON);
+        assertTrue(responseWriter.isValidUtf8(input, 4, input.length - 4));
+        assertFalse(responseWriter.isValidUtf8(input, 1, input.length - 1));
+        assertFalse(responseWriter.isValidUtf8(input, 0, 3));
+    }
+
+    @Test
+    public void isValidUtf8_randomInput_matchesJdkDecoder() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            byte[] input = new byte[random.nextInt(24)];
+            for (int j = 0; j < input.length; j++) {
+                // bias towards ASCII and the lead/continuation bytes where the edge cases are
+                int kind = random.nextInt(4);
+                input[j] = (byte)(kind == 0 ? random.nextInt(0x80) : kind == 1 ? 0x80 + random.nextInt(0x40) : 0xC0 + random.nextInt(0x40));
+            }
+            assertEquals(Arrays.toString(input), isValidJdk(input), responseWriter.isValidUtf8(input));
+        }
+    }
+
+    @Test
+    public void encodeBase64_bufferView_matchesMimeEncoder() {
+        Random random = new Random(42);
+        for (int size : new int[] { 0, 1, 2, 3, 57, 58, 8193, 100000 }) {
+            byte[] input = new byte[size];
+            random.nextBytes(input);
+            ByteBuffer view = ByteBuffer.wrap(input).asReadOnlyBuffer();
+            assertEquals(Base64.getMimeEncoder().encodeToString(input), responseWriter.encodeBase64(view));
+            assertEquals(size, view.remaining());
+        }
+    }
+
+    @Test
+    public void negotiateContentEncoding_acceptEncodingHeader_picksPreferredEncoding() {
+        assertNull(responseWriter.negotiateContentEncoding(null));
+        assertNull(responseWriter.negotiateContentEncoding("identity"));
+        assertEquals("gzip", responseWriter.negotiateContentEncoding("gzip, deflate, br"));
+        assertEquals("gzip", responseWriter.negotiateContentEncoding("deflate, GZIP"));
+        assertEquals("deflate", responseWriter.negotiateContentEncoding("gzip;q=0.5, deflate"));
+        assertEquals("deflate", responseWriter.negotiateContentEncoding("deflate"));
+        assertEquals("gzip", responseWriter.negotiateContentEncoding("*"));
+        assertEquals("deflate", responseWriter.negotiateContentEncoding("gzip;q=0, *"));
+        assertNull(responseWriter.negotiateContentEncoding("gzip;q=0, deflate;q=0"));
+        assertNull(responseWriter.negotiateContentEncoding("*;q=0"));
+    }
+
+    @Test
+    public void compressBody_disabled_returnsNull() {
+        Map<String, String> headers = jsonHeaders();
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(largeJson())), "gzip", headers));
+        assertFalse(headers.containsKey("Vary"));
+    }
+
+    @Test
+    public void compressBody_gzip_compressedAndHeadersSet() throws IOException {
+        responseWriter.setCompressionEnabled(true);
+        byte[] body = utf8(largeJson());
+        Map<String, String> headers = jsonHeaders();
+        headers.put("content-length", String.valueOf(body.length));
+
+        ByteBuffer buffer = ByteBuffer.wrap(body).asReadOnlyBuffer();
+        String compressed = responseWriter.compressBody(buffer, "gzip, deflate", headers);
+        assertNotNull(compressed);
+        assertEquals(body.length, buffer.remaining());
+        byte[] compressedBytes = Base64.getMimeDecoder().decode(compressed);
+        assertTrue(compressedBytes.length < body.length / 4);
+        assertArrayEquals(body, read(new GZIPInputStream(new ByteArrayInputStream(compressedBytes))));
+        assertEquals("gzip", headers.get("Content-Encoding"));
+        assertEquals("Accept-Encoding", headers.get("Vary"));
+        assertFalse(headers.containsKey("content-length"));
+    }
+
+    @Test
+    public void compressBody_deflate_compressed() throws IOException {
+        responseWriter.setCompressionEnabled(true);
+        byte[] body = utf8(largeJson());
+        Map<String, String> headers = jsonHeaders();
+
+        String compressed = responseWriter.compressBody(ByteBuffer.wrap(body), "deflate", headers);
+        assertArrayEquals(body, read(new InflaterInputStream(new ByteArrayInputStream(Base64.getMimeDecoder().decode(compressed)))));
+        assertEquals("deflate", headers.get("Content-Encoding"));
+    }
+
+    @Test
+    public void compressBody_notAccepted_onlyVarySet() {
+        responseWriter.setCompressionEnabled(true);
+        Map<String, String> headers = jsonHeaders();
+        headers.put("vary", "Origin");
+
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(largeJson())), null, headers));
+        assertEquals("Origin, Accept-Encoding", headers.get("Vary"));
+        assertFalse(headers.containsKey("vary"));
+        assertFalse(headers.containsKey("Content-Encoding"));
+    }
+
+    @Test
+    public void compressBody_smallOrNotCompressible_returnsNull() {
+        responseWriter.setCompressionEnabled(true);
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(ASCII_JSON)), "gzip", jsonHeaders()));
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "image/png");
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(largeJson())), "gzip", headers));
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(largeJson())), "gzip", new HashMap<>()));
+
+        headers = jsonHeaders();
+        headers.put("Content-Encoding", "br");
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(largeJson())), "gzip", headers));
+        assertEquals("br", headers.get("Content-Encoding"));
+    }
+
+    @Test
+    public void compressBody_customContentTypes_matchWildcards() {
+        responseWriter.setCompressionEnabled(true);
+        responseWriter.setCompressionMinSize(0);
+        responseWriter.setCompressibleContentTypes(Collections.singleton("application/*+json"));
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/hal+json; charset=UTF-8");
+        assertNotNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(ASCII_JSON)), "gzip", headers));
+        assertNull(responseWriter.compressBody(ByteBuffer.wrap(utf8(ASCII_JSON)), "gzip", jsonHeaders()));
+    }
+
+    @Test
+    public void checkNotModified_disabled_noETag() {
+        Map<String, String> headers = jsonHeaders();
+        assertFalse(responseWriter.checkNotModified(ByteBuffer.wrap(utf8(ASCII_JSON)), 200, "GET", "*", headers));
+        assertFalse(headers.containsKey("ETag"));
+    }
+
+    @Test
+    public void checkNotModified_getRequest_weakETagMatched() {
+        responseWriter.setETagEnabled(true);
+        ByteBuffer body = ByteBuffer.wrap(utf8(ASCII_JSON)).asReadOnlyBuffer();
+        Map<String, String> headers = jsonHeaders();
+        assertFalse(responseWriter.checkNotModified(body, 200, "GET", null, headers));
+        String eTag = headers.get("ETag");
+        assertTrue(eTag.startsWith("W/\""));
+        assertEquals(utf8(ASCII_JSON).length, body.remaining());
+
+        headers = jsonHeaders();
+        headers.put("Content-Length", "10");
+        assertTrue(responseWriter.checkNotModified(body, 200, "get", "\"other\", " + eTag, headers));
+        assertEquals(eTag, headers.get("ETag"));
+        assertFalse(headers.containsKey("Content-Length"));
+
+        assertTrue(responseWriter.checkNotModified(body, 200, "HEAD", eTag.substring(2), jsonHeaders()));
+        assertTrue(responseWriter.checkNotModified(body, 200, "GET", "*", jsonHeaders()));
+    }
+
+    @Test
+    public void checkNotModified_differentBody_differentETag() {
+        responseWriter.setETagEnabled(true);
+        Map<String, String> headers = jsonHeaders();
+        responseWriter.checkNotModified(ByteBuffer.wrap(utf8(ASCII_JSON)), 200, "GET", null, headers);
+
+        Map<String, String> changedHeaders = jsonHeaders();
+        assertFalse(responseWriter.checkNotModified(ByteBuffer.wrap(utf8(ASCII_JSON.replace("Bailey", "Bella"))), 200, "GET",
+                                                    headers.get("ETag"), changedHeaders));
+        assertNotEquals(headers.get("ETag"), changedHeaders.get("ETag"));
+    }
+
+    @Test
+    public void checkNotModified_applicationETag_usedAsIs() {
+        responseWriter.setETagEnabled(true);
+        Map<String, String> headers = jsonHeaders();
+        headers.put("etag", "\"v42\"");
+        assertTrue(responseWriter.checkNotModified(ByteBuffer.wrap(utf8(ASCII_JSON)), 200, "GET", "W/\"v42\"", headers));
+        assertEquals("\"v42\"", headers.get("etag"));
+        assertFalse(headers.containsKey("ETag"));
+    }
+
+    @Test
+    public void checkNotModified_otherMethodsAndStatusCodes_ignored() {
+        responseWriter.setETagEnabled(true);
+        Map<String, String> headers = jsonHeaders();
+        assertFalse(responseWriter.checkNotModified(ByteBuffer.wrap(utf8(ASCII_JSON)), 200, "POST", "*", headers));
+        assertFalse(responseWriter.checkNotModified(ByteBuffer.wrap(utf8(ASCII_JSON)), 404, "GET", "*", headers));
+        assertFalse(headers.containsKey("ETag"));
+    }
+
+    private static Map<String, String> jsonHeaders() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json; charset=UTF-8");
+        return headers;
+    }
+
+    private static String largeJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",").append(ASCII_JSON);
+        }
+        return json.append("]").toString();
+    }
+
+    private static byte[] read(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] output = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            output[i] = (byte)values[i];
+        }
+        return output;
+    }
+
+    private static boolean isValidJdk(byte[] input) {
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                                  .onMalformedInput(CodingErrorAction.REPORT)
+                                  .onUnmappableCharacter(CodingErrorAction.REPORT)
+                                  .decode(ByteBuffer.wrap(input));
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    private static class TestResponseWriter extends ResponseWriter<Object, Object> {
+        @Override
+        protected Object writeResponse(Object containerResponse, Context lambdaContext) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.amazonaws.serverless.proxy.internal;
+
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class StartupTimelineTest {
+
+    @Test
+    public void start_completedStep_measured() throws InterruptedException {
+        StartupTimeline timeline = new StartupTimeline();
+        try (StartupTimeline.Step step = timeline.start("test.sleep")) {
+            Thread.sleep(20);
+        }
+
+        List<StartupTimeline.Step> steps = timeline.getSteps();
+        assertEquals(1, steps.size());
+        StartupTimeline.Step step = steps.get(0);
+        assertEquals("test.sleep", step.getName());
+        assertTrue(step.getWallNanos() >= 20_000_000L);
+        assertTrue(step.getCpuNanos() < step.getWallNanos());
+        assertTrue(step.getClassesLoaded() >= 0);
+        assertTrue(step.getHeapUsedBytes() > 0);
+    }
+
+    @Test
+    public void getSteps_runningStep_notReported() {
+        StartupTimeline timeline = new StartupTimeline();
+        StartupTimeline.Step first = timeline.start("test.first");
+        StartupTimeline.Step second = timeline.start("test.second");
+        second.close();
+
+        assertEquals(1, timeline.getSteps().size());
+        first.close();
+        assertEquals("test.first", timeline.getSteps().get(0).getName());
+        assertEquals("test.second", timeline.getSteps().get(1).getName());
+    }
+
+    @Test
+    public void close_calledTwice_keepsFirstMeasurement() throws InterruptedException {
+        StartupTimeline.Step step = new StartupTimeline().start("test.step");
+        step.close();
+        long wallNanos = step.getWallNanos();
+        Thread.sleep(5);
+        step.close();
+
+        assertEquals(wallNanos, step.getWallNanos());
+    }
+
+    @Test
+    public void logOnce_calledTwice_singleJsonLine() throws IOException {
+        StartupTimeline timeline = new StartupTimeline();
+        timeline.start("test.step").close();
+        List<String> lines = new ArrayList<>();
+        LambdaLogger logger = lines::add;
+
+        timeline.logOnce(logger);
+        timeline.logOnce(logger);
+
+        assertTrue(timeline.isLogged());
+        assertEquals(1, lines.size());
+        JsonNode json = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("test.step", json.get("startupTimeline").get(0).get("step").asText());
+        assertTrue(json.get("startupTimeline").get(0).has("cpuMillis"));
+        assertTrue(json.get("classesLoaded").asLong() > 0);
+    }
+
+    @Test
+    public void start_afterLog_measuredButNotRecorded() {
+        StartupTimeline timeline = new StartupTimeline();
+        timeline.start("test.coldStart").close();
+        timeline.logOnce(message -> { });
+
+        StartupTimeline.Step step = timeline.start("test.afterLog");
+        step.close();
+
+        assertTrue(step.getWallNanos() > 0);
+        assertEquals(1, timeline.getSteps().size());
+        assertEquals("test.coldStart", timeline.getSteps().get(0).getName());
+    }
+
+    @Test
+    public void start_fullTimeline_stepsNotRecorded() {
+        StartupTimeline timeline = new StartupTimeline();
+        for (int i = 0; i < StartupTimeline.MAX_STEPS + 10; i++) {
+            timeline.start("test.step" + i).close();
+        }
+
+        assertEquals(StartupTimeline.MAX_STEPS, timeline.getSteps().size());
+    }
+
+    @Test
+    public void clear_afterLog_emptyAndLoggable() {
+        StartupTimeline timeline = new StartupTimeline();
+        timeline.start("test.step").close();
+        timeline.logOnce(message -> { });
+
+        timeline.clear();
+
+        assertTrue(timeline.getSteps().isEmpty());
+        assertFalse(timeline.isLogged());
+    }
+}
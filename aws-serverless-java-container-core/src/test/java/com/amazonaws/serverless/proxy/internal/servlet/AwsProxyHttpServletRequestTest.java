@@ -2,15 +2,31 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import javax.servlet.MultipartConfigElement;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -52,8 +68,26 @@ public class AwsProxyHttpServletRequestTest {
 
     private static final AwsProxyRequest REQUEST_QUERY = new AwsProxyRequestBuilder("/hello", "POST")
             .queryString(FORM_PARAM_NAME, QUERY_STRING_NAME_VALUE).build();
+    private static final String REQUEST_BODY = "{\"name\":\"Bailey\",\"breed\":\"Beagle\"}";
+    private static final String MULTIPART_BOUNDARY = "----AwsProxyBoundary";
+    private static final String MULTIPART_FILE_CONTENT = String.join("", Collections.nCopies(100, "0123456789"));
+    private static final AwsProxyRequest REQUEST_MULTIPART = new AwsProxyRequestBuilder("/hello", "POST")
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.MULTIPART_FORM_DATA + "; boundary=" + MULTIPART_BOUNDARY)
+            .body("--" + MULTIPART_BOUNDARY + "\r\n"
+                  + "Content-Disposition: form-data; name=\"" + FORM_PARAM_NAME + "\"\r\n\r\n"
+                  + FORM_PARAM_NAME_VALUE + "\r\n"
+                  + "--" + MULTIPART_BOUNDARY + "\r\n"
+                  + "Content-Disposition: form-data; name=\"file\"; filename=\"numbers.txt\"\r\n"
+                  + "Content-Type: text/plain\r\n\r\n"
+                  + MULTIPART_FILE_CONTENT + "\r\n"
+                  + "--" + MULTIPART_BOUNDARY + "--\r\n").build();
+    private static final AwsProxyRequest REQUEST_JSON_BODY = new AwsProxyRequestBuilder("/hello", "POST")
+            .json().body(REQUEST_BODY).build();
 
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void headers_getHeader_validRequest() {
         HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_WITH_HEADERS, null, null);
@@ -177,4 +211,284 @@ public class AwsProxyHttpServletRequestTest {
         assertEquals(1, parameterNames.size());
         assertTrue(parameterNames.contains(FORM_PARAM_NAME));
     }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void contextPath_stageRequest_servletContextIsRoot() {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(new AwsProxyRequestBuilder("/hello", "GET").stage("prod").build(), null, null);
+
+        assertEquals("prod", request.getContextPath());
+        assertEquals("", request.getServletContext().getContextPath());
+        assertNull(((AwsProxyServletContext) request.getServletContext()).getStage());
+    }
+
+    @Test
+    public void inputStream_bulkRead_readsWholeBody() throws IOException {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_JSON_BODY, null, null);
+        ServletInputStream input = request.getInputStream();
+        byte[] expected = REQUEST_BODY.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length, input.available());
+
+        byte[] buffer = new byte[expected.length + 10];
+        int read = input.read(buffer, 5, 10);
+        assertEquals(10, read);
+        read += input.read(buffer, 5 + read, buffer.length - 5 - read);
+        assertEquals(expected.length, read);
+        assertArrayEquals(expected, Arrays.copyOfRange(buffer, 5, 5 + read));
+        assertTrue(input.isFinished());
+        assertEquals(-1, input.read(buffer, 0, buffer.length));
+        assertEquals(0, input.available());
+    }
+
+    @Test
+    public void inputStream_skipAndReadAllBytes_readsRemainingBody() throws IOException {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_JSON_BODY, null, null);
+        AwsServletInputStream input = (AwsServletInputStream)request.getInputStream();
+        assertEquals(8, input.skip(8));
+        assertFalse(input.isFinished());
+        assertEquals(REQUEST_BODY.substring(8), new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        assertTrue(input.isFinished());
+        assertEquals(0, input.readAllBytes().length);
+    }
+
+    @Test
+    public void inputStream_gzipBody_finishedAtEndOfStream() throws IOException {
+        byte[] expected = REQUEST_BODY.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(expected);
+        }
+        AwsProxyRequest gzipRequest = new AwsProxyRequestBuilder("/hello", "POST")
+                .json()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(Base64.getEncoder().encodeToString(compressed.toByteArray())).build();
+        gzipRequest.setBase64Encoded(true);
+
+        ServletInputStream input = new AwsProxyHttpServletRequest(gzipRequest, null, null).getInputStream();
+        byte[] buffer = new byte[expected.length];
+        int read = 0;
+        while (read < buffer.length) {
+            read += input.read(buffer, read, buffer.length - read);
+            assertFalse(input.isFinished());
+        }
+        assertEquals(-1, input.read());
+        assertTrue(input.isFinished());
+        assertArrayEquals(expected, buffer);
+    }
+
+    @Test
+    public void inputStream_noAvailableEstimate_notFinishedEarly() throws IOException {
+        AwsServletInputStream input = new AwsServletInputStream(new ByteArrayInputStream(new byte[] { 1, 2 }) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        });
+        assertEquals(1, input.read());
+        assertFalse(input.isFinished());
+        assertEquals(2, input.read());
+        assertEquals(-1, input.read());
+        assertTrue(input.isFinished());
+    }
+
+    @Test
+    public void inputStream_readListener_notifiedWhenBodyRead() throws IOException {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_JSON_BODY, null, null);
+        ServletInputStream input = request.getInputStream();
+        final int[] allDataRead = { 0 };
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead[0]++;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+        });
+
+        byte[] buffer = new byte[1024];
+        while (input.read(buffer, 0, buffer.length) != -1) {
+            // read the whole body
+        }
+        assertEquals(1, allDataRead[0]);
+    }
+
+    @Test
+    public void headers_getHeader_caseInsensitive() {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_WITH_HEADERS, null, null);
+        assertEquals(CUSTOM_HEADER_VALUE, request.getHeader(CUSTOM_HEADER_KEY.toLowerCase()));
+        assertEquals(CUSTOM_HEADER_VALUE, request.getHeader(CUSTOM_HEADER_KEY.toUpperCase()));
+        assertEquals(MediaType.APPLICATION_JSON, request.getHeader("content-type"));
+        assertEquals(MediaType.APPLICATION_JSON, request.getContentType());
+        assertNull(request.getHeader("X-Missing-Header"));
+    }
+
+    @Test
+    public void headers_setCharacterEncoding_updatesContentTypeHeader() throws IOException {
+        AwsProxyRequest proxyRequest = new AwsProxyRequestBuilder("/hello", "POST").json().build();
+        HttpServletRequest request = new AwsProxyHttpServletRequest(proxyRequest, null, null);
+        assertNull(request.getCharacterEncoding());
+
+        request.setCharacterEncoding("UTF-8");
+        assertEquals("UTF-8", request.getCharacterEncoding());
+        assertTrue(request.getHeader(HttpHeaders.CONTENT_TYPE.toLowerCase()).contains("charset=UTF-8"));
+    }
+
+    @Test
+    public void queryParameters_getParameter_caseInsensitive() {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_QUERY, null, null);
+        assertEquals(QUERY_STRING_NAME_VALUE, request.getParameter(FORM_PARAM_NAME.toUpperCase()));
+        assertEquals(QUERY_STRING_NAME_VALUE, request.getParameterValues(FORM_PARAM_NAME)[0]);
+        assertNull(request.getParameter("missing"));
+    }
+
+    @Test
+    public void formParams_getParameterMap_stableAcrossCalls() {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_FORM_URLENCODED_AND_QUERY, null, null);
+        assertEquals(2, request.getParameterMap().get(FORM_PARAM_NAME).length);
+        assertEquals(2, request.getParameterMap().get(FORM_PARAM_NAME).length);
+        assertEquals(2, request.getParameterValues(FORM_PARAM_NAME).length);
+        assertTrue(Arrays.asList(request.getParameterValues(FORM_PARAM_NAME)).contains(FORM_PARAM_NAME_VALUE));
+    }
+
+    @Test
+    public void multipart_getParts_jsonRequestHasNoParts() throws IOException, ServletException {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_JSON_BODY, null, null);
+        assertTrue(request.getParts().isEmpty());
+        assertNull(request.getPart("file"));
+        assertEquals(REQUEST_BODY.length(), ((AwsServletInputStream)request.getInputStream()).readAllBytes().length);
+    }
+
+    @Test
+    public void multipart_getPart_smallPartsInMemory() throws IOException, ServletException {
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_MULTIPART, null, null);
+        request.setMultipartConfig(new MultipartConfigElement(temporaryFolder.getRoot().getAbsolutePath(), -1, -1, 4096));
+
+        assertEquals(2, request.getParts().size());
+        Part file = request.getPart("file");
+        assertEquals("file", file.getName());
+        assertEquals("numbers.txt", file.getSubmittedFileName());
+        assertEquals(MediaType.TEXT_PLAIN, file.getContentType());
+        assertEquals(MULTIPART_FILE_CONTENT.length(), file.getSize());
+        assertEquals(MULTIPART_FILE_CONTENT, readPart(file));
+        assertEquals(FORM_PARAM_NAME_VALUE, readPart(request.getPart(FORM_PARAM_NAME)));
+        assertEquals(0, temporaryFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void multipart_partAboveThreshold_spilledToDiskAndDeleted() throws IOException, ServletException {
+        File spillFolder = temporaryFolder.newFolder();
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(REQUEST_MULTIPART, null, null);
+        request.setMultipartConfig(new MultipartConfigElement(spillFolder.getAbsolutePath(), -1, -1, 64));
+
+        Part file = request.getPart("file");
+        assertEquals(1, spillFolder.list().length);
+        assertEquals(MULTIPART_FILE_CONTENT, readPart(file));
+        assertEquals(FORM_PARAM_NAME_VALUE, readPart(request.getPart(FORM_PARAM_NAME)));
+
+        File copy = temporaryFolder.newFile();
+        file.write(copy.getAbsolutePath());
+        assertEquals(MULTIPART_FILE_CONTENT, new String(Files.readAllBytes(copy.toPath()), StandardCharsets.UTF_8));
+
+        request.deleteParts();
+        assertEquals(0, spillFolder.list().length);
+    }
+
+    private static String readPart(Part part) throws IOException {
+        AwsServletInputStream input = new AwsServletInputStream(part.getInputStream());
+        return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void inputStream_nullBody_empty() throws IOException {
+        HttpServletRequest request = new AwsProxyHttpServletRequest(new AwsProxyRequestBuilder("/hello", "GET").build(), null, null);
+        assertEquals(-1, request.getInputStream().read());
+        assertNull(request.getReader().readLine());
+    }
+
+    @Test
+    public void inputStream_textBody_encodedWithDeclaredCharset() throws IOException {
+        String text = "{\"name\":\"M\u00fcnchen\"}";
+        AwsProxyRequest utf8Request = new AwsProxyRequestBuilder("/hello", "POST").json().body(text).build();
+        AwsServletInputStream input = (AwsServletInputStream) new AwsProxyHttpServletRequest(utf8Request, null, null).getInputStream();
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), input.readAllBytes());
+
+        AwsProxyRequest latin1Request = new AwsProxyRequestBuilder("/hello", "POST")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN + "; charset=ISO-8859-1").body(text).build();
+        input = (AwsServletInputStream) new AwsProxyHttpServletRequest(latin1Request, null, null).getInputStream();
+        assertArrayEquals(text.getBytes(StandardCharsets.ISO_8859_1), input.readAllBytes());
+    }
+
+    @Test
+    public void inputStream_base64Body_decoded() throws IOException {
+        byte[] content = { 0, (byte) 0xFF, 0x10, (byte) 0x80, 'a' };
+        AwsProxyRequest base64Request = new AwsProxyRequestBuilder("/hello", "POST").body(Base64.getEncoder().encodeToString(content)).build();
+        base64Request.setBase64Encoded(true);
+        HttpServletRequest request = new AwsProxyHttpServletRequest(base64Request, null, null);
+        assertArrayEquals(content, ((AwsServletInputStream) request.getInputStream()).readAllBytes());
+        assertArrayEquals(content, ((AwsServletInputStream) request.getInputStream()).readAllBytes());
+    }
+
+    @Test
+    public void inputStream_gzipBody_inflated() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(REQUEST_BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        AwsProxyRequest gzipRequest = new AwsProxyRequestBuilder("/hello", "POST")
+                .json()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(Base64.getEncoder().encodeToString(compressed.toByteArray())).build();
+        gzipRequest.setBase64Encoded(true);
+
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(gzipRequest, null, null);
+        assertEquals(REQUEST_BODY, request.getReader().readLine());
+
+        request = new AwsProxyHttpServletRequest(gzipRequest, null, null);
+        request.setMaxInflatedBodySize(10);
+        try {
+            ((AwsServletInputStream) request.getInputStream()).readAllBytes();
+            fail("Expected the inflated body to exceed the maximum size");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void headers_gzipBody_encodingAndLengthHidden() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(REQUEST_BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        AwsProxyRequest gzipRequest = new AwsProxyRequestBuilder("/hello", "POST")
+                .json()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_LENGTH, "" + compressed.size())
+                .body(Base64.getEncoder().encodeToString(compressed.toByteArray())).build();
+        gzipRequest.setBase64Encoded(true);
+
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(gzipRequest, null, null);
+        assertNull(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(request.getHeader("content-length"));
+        assertEquals(-1, request.getContentLength());
+        assertEquals(-1L, request.getContentLengthLong());
+        assertFalse(Collections.list(request.getHeaderNames()).contains(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(Collections.list(request.getHeaderNames()).contains(HttpHeaders.CONTENT_TYPE));
+        assertEquals(REQUEST_BODY, request.getReader().readLine());
+    }
+
+    @Test
+    public void headers_unsupportedEncoding_encodingKept() {
+        AwsProxyRequest brotliRequest = new AwsProxyRequestBuilder("/hello", "POST")
+                .header(HttpHeaders.CONTENT_ENCODING, "br")
+                .body("compressed").build();
+
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(brotliRequest, null, null);
+        assertEquals("br", request.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
 }
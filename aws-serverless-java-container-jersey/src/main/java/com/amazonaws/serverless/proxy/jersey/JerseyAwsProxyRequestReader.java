@@ -14,6 +14,7 @@ package com.amazonaws.serverless.proxy.jersey;
 
 
 import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.proxy.internal.RequestBody;
 import com.amazonaws.serverless.proxy.internal.RequestReader;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -21,18 +22,22 @@ import org.glassfish.jersey.internal.MapPropertiesDelegate;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.server.ContainerRequest;
 
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.SecurityContext;
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Base64;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 
 /**
  * Default implementation of the <code>RequestReader</code> object. This object reads an incoming <code>AwsProxyRequest</code>
- * event and transform it into a Jersey <code>ContainerRequest</code> object. The object sets three custom properties in the
- * request's <code>PropertiesDelegate</code> object: The API Gateway request context, the Map of stage variables, and the
- * Lambda context object.
+ * event and transform it into a Jersey <code>ContainerRequest</code> object. The object sets four custom properties in the
+ * request's <code>PropertiesDelegate</code> object: The API Gateway request context, the Map of stage variables, the
+ * Lambda context object, and the original API Gateway event.
  *
  * The <code>useStageAsBasePath</code> configuration variable lets you set whether the stage name should be included in the
  * request path passed to the Jersey application handler.
@@ -46,14 +51,6 @@ public class JerseyAwsProxyRequestReader extends RequestReader<AwsProxyRequest,
     private boolean useStageAsBasePath = false;
 
 
-    //-------------------------------------------------------------
-    // Variables - Private - Static
-    //-------------------------------------------------------------
-
-    private static AwsProxyRequest currentRequest;
-    private static Context currentLambdaContext;
-
-
     //-------------------------------------------------------------
     // Methods - Implementation
     //-------------------------------------------------------------
@@ -71,9 +68,6 @@ public class JerseyAwsProxyRequestReader extends RequestReader<AwsProxyRequest,
     @Override
     public ContainerRequest readRequest(AwsProxyRequest request, SecurityContext securityContext, Context lambdaContext)
             throws InvalidRequestEventException {
-        currentRequest = request;
-        currentLambdaContext = lambdaContext;
-
         URI basePathUri;
         URI requestPathUri;
         String basePath = useStageAsBasePath ? request.getRequestContext().getStage() : "/";
@@ -94,23 +88,33 @@ public class JerseyAwsProxyRequestReader extends RequestReader<AwsProxyRequest,
         apiGatewayProperties.setProperty(API_GATEWAY_CONTEXT_PROPERTY, request.getRequestContext());
         apiGatewayProperties.setProperty(API_GATEWAY_STAGE_VARS_PROPERTY, request.getStageVariables());
         apiGatewayProperties.setProperty(LAMBDA_CONTEXT_PROPERTY, lambdaContext);
+        apiGatewayProperties.setProperty(API_GATEWAY_EVENT_PROPERTY, request);
 
         ContainerRequest requestContext = new ContainerRequest(basePathUri, requestPathUri, request.getHttpMethod(), securityContext, apiGatewayProperties);
 
-        if (request.getBody() != null) {
-            if (request.isBase64Encoded()) {
-                requestContext.setEntityStream(new ByteArrayInputStream(Base64.getDecoder().decode(request.getBody())));
-            } else {
-                requestContext.setEntityStream(new ByteArrayInputStream(request.getBody().getBytes()));
-            }
-        }
-
         if (request.getHeaders() != null) {
             for (final String headerName : request.getHeaders().keySet()) {
                 requestContext.headers(headerName, request.getHeaders().get(headerName));
             }
         }
 
+        if (request.getBody() != null) {
+            // text bodies are encoded with the charset declared in the content type, which is what Jersey decodes them with
+            RequestBody body = new RequestBody(request.getBody(), request.isBase64Encoded());
+            body.setContentEncoding(requestContext.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+            body.setMaxInflatedSize(getMaxInflatedBodySize());
+            if (body.isInflated()) {
+                // the application reads the inflated body, the headers of the compressed body would make it decode it again
+                requestContext.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+                requestContext.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            }
+            try {
+                requestContext.setEntityStream(body.getInputStream(getEntityCharset(requestContext)));
+            } catch (IOException e) {
+                throw new InvalidRequestEventException("Could not decode the request body", e);
+            }
+        }
+
         return requestContext;
     }
 
@@ -139,15 +143,17 @@ public class JerseyAwsProxyRequestReader extends RequestReader<AwsProxyRequest,
 
 
     //-------------------------------------------------------------
-    // Methods - Package
+    // Methods - Private
     //-------------------------------------------------------------
 
-    static AwsProxyRequest getCurrentRequest() {
-        return currentRequest;
-    }
-
-
-    static Context getCurrentLambdaContext() {
-        return currentLambdaContext;
+    private static Charset getEntityCharset(ContainerRequest requestContext) {
+        try {
+            MediaType mediaType = requestContext.getMediaType();
+            String charset = mediaType == null ? null : mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+            return charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset);
+        } catch (IllegalArgumentException | ProcessingException e) {
+            // malformed content types and unknown charsets fall back to the default encoding for API Gateway bodies
+            return StandardCharsets.UTF_8;
+        }
     }
 }
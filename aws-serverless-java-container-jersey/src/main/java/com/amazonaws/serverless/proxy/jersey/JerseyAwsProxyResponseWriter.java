@@ -18,7 +18,11 @@ import com.amazonaws.serverless.proxy.internal.ResponseWriter;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
 import com.amazonaws.services.lambda.runtime.Context;
 
-import java.util.Base64;
+import javax.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
@@ -46,28 +50,44 @@ public class JerseyAwsProxyResponseWriter extends ResponseWriter<JerseyResponseW
             throws InvalidResponseObjectException {
         try {
             AwsProxyResponse response = new AwsProxyResponse();
-            response.setStatusCode(containerResponse.getStatusCode());
-
-            if (containerResponse.getHeaders() != null && containerResponse.getHeaders().size() > 0) {
-                response.setHeaders(containerResponse.getHeaders());
-            }
+            int statusCode = containerResponse.getStatusCode();
+            Map<String, String> headers = containerResponse.getHeaders() == null ? new HashMap<>() : containerResponse.getHeaders();
 
-            if (containerResponse.getResponseBody() != null) {
-                String responseString;
+            if (containerResponse.getResponseBody() != null
+                    && checkNotModified(containerResponse.getResponseBody().toByteBuffer(), statusCode,
+                                        containerResponse.getRequestMethod(), containerResponse.getIfNoneMatch(), headers)) {
+                // the client already has this body, skip encoding it
+                statusCode = Response.Status.NOT_MODIFIED.getStatusCode();
+            } else if (containerResponse.getResponseBody() != null) {
+                String responseString = compressBody(containerResponse.getResponseBody().toByteBuffer(),
+                                                     containerResponse.getAcceptEncoding(), headers);
 
-                if (isValidUtf8(containerResponse.getResponseBody().toByteArray())) {
-                    responseString = new String(containerResponse.getResponseBody().toByteArray());
+                if (responseString != null) {
+                    response.setBase64Encoded(true);
+                } else if (containerResponse.getResponseBody().isValidUtf8()) {
+                    responseString = containerResponse.getResponseBody().toString(StandardCharsets.UTF_8);
                 } else {
-                    responseString = Base64.getMimeEncoder().encodeToString(containerResponse.getResponseBody().toByteArray());
+                    responseString = encodeBase64(containerResponse.getResponseBody().toByteBuffer());
                     response.setBase64Encoded(true);
                 }
 
                 response.setBody(responseString);
             }
 
+            response.setStatusCode(statusCode);
+            if (headers.size() > 0) {
+                response.setHeaders(headers);
+            }
+
             return response;
         } catch (Exception ex) {
             throw new InvalidResponseObjectException(ex.getMessage(), ex);
         }
     }
+
+
+    @Override
+    protected void releaseResponse(JerseyResponseWriter containerResponse) {
+        containerResponse.releaseResponseBody();
+    }
 }
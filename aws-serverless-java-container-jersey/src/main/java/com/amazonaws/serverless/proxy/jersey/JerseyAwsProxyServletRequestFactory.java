@@ -13,15 +13,22 @@
 package com.amazonaws.serverless.proxy.jersey;
 
 
-import com.amazonaws.serverless.proxy.internal.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.RequestReader;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequest;
+import com.amazonaws.services.lambda.runtime.Context;
 import org.glassfish.hk2.api.Factory;
+import org.glassfish.jersey.server.ContainerRequest;
 
+import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.servlet.http.HttpServletRequest;
 
 /**
  * Implementation of Jersey's <code>Factory</code> object for <code>HttpServletRequest</code> objects. This can be used
- * by Jersey to generate a Servlet request given an <code>AwsProxyRequest</code> event.
+ * by Jersey to generate a Servlet request given an <code>AwsProxyRequest</code> event. The event, Lambda context and
+ * security context are read from the Jersey <code>ContainerRequest</code> being processed, so the factory can be used by
+ * concurrent requests.
  *
  * <pre>
  * <code>
@@ -40,15 +47,24 @@ import javax.servlet.http.HttpServletRequest;
 public class JerseyAwsProxyServletRequestFactory
         implements Factory<HttpServletRequest> {
 
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    @Inject
+    private Provider<ContainerRequest> containerRequestProvider;
+
+
     //-------------------------------------------------------------
     // Implementation - Factory
     //-------------------------------------------------------------
 
     @Override
     public HttpServletRequest provide() {
-        return new AwsProxyHttpServletRequest(JerseyAwsProxyRequestReader.getCurrentRequest(),
-                                              JerseyAwsProxyRequestReader.getCurrentLambdaContext(),
-                                              AwsProxySecurityContextWriter.getCurrentContext());
+        ContainerRequest containerRequest = containerRequestProvider.get();
+        return new AwsProxyHttpServletRequest((AwsProxyRequest) containerRequest.getProperty(RequestReader.API_GATEWAY_EVENT_PROPERTY),
+                                              (Context) containerRequest.getProperty(RequestReader.LAMBDA_CONTEXT_PROPERTY),
+                                              containerRequest.getSecurityContext());
     }
 
 
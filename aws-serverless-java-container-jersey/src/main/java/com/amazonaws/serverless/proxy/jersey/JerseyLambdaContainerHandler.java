@@ -15,23 +15,31 @@ package com.amazonaws.serverless.proxy.jersey;
 
 import com.amazonaws.serverless.proxy.internal.AwsProxyExceptionHandler;
 import com.amazonaws.serverless.proxy.internal.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.ContainerRoute;
 import com.amazonaws.serverless.proxy.internal.ExceptionHandler;
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import com.amazonaws.serverless.proxy.internal.RequestReader;
+import com.amazonaws.serverless.proxy.internal.ResponseLatch;
 import com.amazonaws.serverless.proxy.internal.ResponseWriter;
 import com.amazonaws.serverless.proxy.internal.SecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.StartupTimeline;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ExtendedResourceContext;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
 import org.glassfish.jersey.server.spi.Container;
 
 import javax.ws.rs.core.Application;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.List;
+
 
 
 /**
@@ -110,9 +118,13 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Lam
         super(requestReader, responseWriter, securityContextWriter, exceptionHandler);
 
         this.jaxRsApplication = jaxRsApplication;
-        this.applicationHandler = new ApplicationHandler(jaxRsApplication);
+        try (StartupTimeline.Step step = StartupTimeline.getInstance().start("jersey.applicationHandler")) {
+            this.applicationHandler = new ApplicationHandler(jaxRsApplication);
+        }
 
-        applicationHandler.onStartup(this);
+        try (StartupTimeline.Step step = StartupTimeline.getInstance().start("jersey.startup")) {
+            applicationHandler.onStartup(this);
+        }
     }
 
 
@@ -176,8 +188,8 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Lam
     //-------------------------------------------------------------
 
     @Override
-    protected JerseyResponseWriter getContainerResponse(CountDownLatch latch) {
-        return new JerseyResponseWriter(latch);
+    protected JerseyResponseWriter getContainerResponse(ContainerRequest containerRequest, ResponseLatch latch) {
+        return new JerseyResponseWriter(latch, getResponseBufferPool());
     }
 
 
@@ -187,4 +199,40 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Lam
 
         applicationHandler.handle(containerRequest);
     }
+
+
+    /**
+     * Returns the resource methods of Jersey's runtime resource model. Sub-resource locators are not followed, the
+     * resources they return are only known when a request is matched.
+     *
+     * @return The routes of the Jax-Rs application
+     */
+    @Override
+    public List<ContainerRoute> getRoutes() {
+        List<ContainerRoute> routes = new ArrayList<>();
+        ExtendedResourceContext resourceContext = applicationHandler.getServiceLocator().getService(ExtendedResourceContext.class);
+        for (Resource resource : resourceContext.getResourceModel().getRootResources()) {
+            addRoutes(routes, "", resource);
+        }
+        return routes;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static void addRoutes(List<ContainerRoute> routes, String parentPath, Resource resource) {
+        String path = parentPath;
+        if (resource.getPath() != null) {
+            path = parentPath.replaceAll("/+$", "") + "/" + resource.getPath().replaceAll("^/+", "");
+        }
+
+        for (ResourceMethod method : resource.getResourceMethods()) {
+            routes.add(new ContainerRoute(method.getHttpMethod(), path));
+        }
+        for (Resource child : resource.getChildResources()) {
+            addRoutes(routes, path, child);
+        }
+    }
 }
@@ -13,16 +13,20 @@
 package com.amazonaws.serverless.proxy.jersey;
 
 
+import com.amazonaws.serverless.proxy.internal.ResponseBodyOutputStream;
+import com.amazonaws.serverless.proxy.internal.ResponseBufferPool;
+import com.amazonaws.serverless.proxy.internal.ResponseLatch;
+
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 
-import java.io.ByteArrayOutputStream;
+import javax.ws.rs.core.HttpHeaders;
+
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 
@@ -38,10 +42,14 @@ class JerseyResponseWriter
     // Variables - Private
     //-------------------------------------------------------------
 
-    private CountDownLatch responseMutex;
+    private ResponseLatch responseMutex;
+    private ResponseBufferPool bufferPool;
     private Map<String, String> headers;
     private int statusCode;
-    private ByteArrayOutputStream responseBody;
+    private ResponseBodyOutputStream responseBody;
+    private String acceptEncoding;
+    private String ifNoneMatch;
+    private String requestMethod;
 
 
     //-------------------------------------------------------------
@@ -53,8 +61,20 @@ class JerseyResponseWriter
      * @param latch The latch object is used to synchronize the response request handling and response generation for
      *              AWS Lambda
      */
-    JerseyResponseWriter(CountDownLatch latch) {
+    JerseyResponseWriter(ResponseLatch latch) {
+        this(latch, null);
+    }
+
+
+    /**
+     * Creates a new response writer that takes the body buffer from the given pool.
+     * @param latch The latch object is used to synchronize the response request handling and response generation for
+     *              AWS Lambda
+     * @param bufferPool The pool the body buffer is taken from, when null a new buffer is allocated
+     */
+    JerseyResponseWriter(ResponseLatch latch, ResponseBufferPool bufferPool) {
         this.responseMutex = latch;
+        this.bufferPool = bufferPool;
     }
 
 
@@ -83,7 +103,14 @@ class JerseyResponseWriter
             }
         }
 
-        responseBody = new ByteArrayOutputStream();
+        acceptEncoding = containerResponse.getRequestContext().getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        ifNoneMatch = containerResponse.getRequestContext().getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        requestMethod = containerResponse.getRequestContext().getMethod();
+        if (responseBody == null) {
+            responseBody = bufferPool == null ? new ResponseBodyOutputStream() : bufferPool.acquire();
+        } else {
+            responseBody.reset();
+        }
 
         return responseBody;
     }
@@ -99,12 +126,12 @@ class JerseyResponseWriter
 
 
     public void commit() {
-        responseMutex.countDown();
+        responseMutex.release();
     }
 
 
     public void failure(Throwable throwable) {
-        responseMutex.countDown();
+        responseMutex.release();
     }
 
 
@@ -127,7 +154,33 @@ class JerseyResponseWriter
     }
 
 
-    ByteArrayOutputStream getResponseBody() {
+    ResponseBodyOutputStream getResponseBody() {
         return responseBody;
     }
+
+
+    String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+
+    String getIfNoneMatch() {
+        return ifNoneMatch;
+    }
+
+
+    String getRequestMethod() {
+        return requestMethod;
+    }
+
+
+    /**
+     * Returns the body buffer to the pool it was taken from. The body must not be read after this method is called.
+     */
+    void releaseResponseBody() {
+        if (bufferPool != null) {
+            bufferPool.release(responseBody);
+            bufferPool = null;
+        }
+    }
 }
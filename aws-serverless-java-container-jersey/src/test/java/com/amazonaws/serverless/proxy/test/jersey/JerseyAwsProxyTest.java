@@ -13,8 +13,15 @@
 package com.amazonaws.serverless.proxy.test.jersey;
 
 
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.AwsProxyExceptionHandler;
+import com.amazonaws.serverless.proxy.internal.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.ContainerRoute;
+import com.amazonaws.serverless.proxy.internal.StartupTimeline;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.jersey.JerseyAwsProxyRequestReader;
+import com.amazonaws.serverless.proxy.jersey.JerseyAwsProxyResponseWriter;
 import com.amazonaws.serverless.proxy.jersey.JerseyAwsProxyServletRequestFactory;
 import com.amazonaws.serverless.proxy.jersey.JerseyLambdaContainerHandler;
 import com.amazonaws.serverless.proxy.test.jersey.model.MapResponseModel;
@@ -33,8 +40,14 @@ import org.junit.Test;
 
 import javax.servlet.http.HttpServletRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -179,6 +192,79 @@ public class JerseyAwsProxyTest {
         validateSingleValueModel(output, CUSTOM_HEADER_VALUE);
     }
 
+    @Test
+    public void eTag_ifNoneMatch_notModified() {
+        JerseyAwsProxyResponseWriter responseWriter = new JerseyAwsProxyResponseWriter();
+        responseWriter.setETagEnabled(true);
+        JerseyLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> eTagHandler = new JerseyLambdaContainerHandler<>(
+                new JerseyAwsProxyRequestReader(), responseWriter, new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler(),
+                new ResourceConfig().register(EchoJerseyResource.class));
+
+        AwsProxyResponse output = eTagHandler.proxy(new AwsProxyRequestBuilder("/echo/query-string", "GET")
+                                                            .queryString("value", CUSTOM_HEADER_VALUE).build(), lambdaContext);
+        assertEquals(200, output.getStatusCode());
+        String eTag = output.getHeaders().get("ETag");
+        assertNotNull(eTag);
+
+        output = eTagHandler.proxy(new AwsProxyRequestBuilder("/echo/query-string", "GET")
+                                           .queryString("value", CUSTOM_HEADER_VALUE)
+                                           .header("If-None-Match", eTag).build(), lambdaContext);
+        assertEquals(304, output.getStatusCode());
+        assertNull(output.getBody());
+        assertEquals(eTag, output.getHeaders().get("ETag"));
+
+        output = eTagHandler.proxy(new AwsProxyRequestBuilder("/echo/query-string", "GET")
+                                           .queryString("value", "changed")
+                                           .header("If-None-Match", eTag).build(), lambdaContext);
+        assertEquals(200, output.getStatusCode());
+        assertNotEquals(eTag, output.getHeaders().get("ETag"));
+    }
+
+    @Test
+    public void requestBody_gzipContentEncoding_inflated() throws IOException {
+        SingleValueModel singleValueModel = new SingleValueModel();
+        singleValueModel.setValue(CUSTOM_HEADER_VALUE);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            objectMapper.writeValue(output, singleValueModel);
+        }
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/json-body", "POST")
+                .json()
+                .header("Content-Encoding", "gzip")
+                .body(Base64.encodeBase64String(compressed.toByteArray()))
+                .build();
+        request.setBase64Encoded(true);
+
+        AwsProxyResponse output = handler.proxy(request, lambdaContext);
+        assertEquals(200, output.getStatusCode());
+
+        validateSingleValueModel(output, CUSTOM_HEADER_VALUE);
+    }
+
+    @Test
+    public void requestBody_gzipContentEncoding_compressedBodyHeadersHidden() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write("{}".getBytes(StandardCharsets.UTF_8));
+        }
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/headers", "GET")
+                .json()
+                .header(CUSTOM_HEADER_KEY, CUSTOM_HEADER_VALUE)
+                .header("Content-Encoding", "gzip")
+                .header("Content-Length", "" + compressed.size())
+                .body(Base64.encodeBase64String(compressed.toByteArray()))
+                .build();
+        request.setBase64Encoded(true);
+
+        AwsProxyResponse output = handler.proxy(request, lambdaContext);
+        assertEquals(200, output.getStatusCode());
+
+        MapResponseModel response = objectMapper.readValue(output.getBody(), MapResponseModel.class);
+        assertEquals(CUSTOM_HEADER_VALUE, response.getValues().get(CUSTOM_HEADER_KEY));
+        assertFalse(response.getValues().containsKey("Content-Encoding"));
+        assertFalse(response.getValues().containsKey("Content-Length"));
+    }
+
     @Test
     public void statusCode_responseStatusCode_customStatusCode() {
         AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/status-code", "GET")
@@ -199,6 +285,95 @@ public class JerseyAwsProxyTest {
         assertTrue(Base64.isBase64(response.getBody()));
     }
 
+    @Test
+    public void compression_acceptEncodingGzip_compressedResponse() throws IOException {
+        JerseyAwsProxyResponseWriter responseWriter = new JerseyAwsProxyResponseWriter();
+        responseWriter.setCompressionEnabled(true);
+        responseWriter.setCompressionMinSize(0);
+        JerseyLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> compressingHandler = new JerseyLambdaContainerHandler<>(
+                new JerseyAwsProxyRequestReader(), responseWriter, new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler(),
+                new ResourceConfig().register(EchoJerseyResource.class));
+
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/headers", "GET")
+                .json()
+                .header(CUSTOM_HEADER_KEY, CUSTOM_HEADER_VALUE)
+                .header("Accept-Encoding", "gzip")
+                .build();
+
+        AwsProxyResponse output = compressingHandler.proxy(request, lambdaContext);
+        assertEquals(200, output.getStatusCode());
+        assertTrue(output.isBase64Encoded());
+        assertEquals("gzip", output.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", output.getHeaders().get("Vary"));
+
+        GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(Base64.decodeBase64(output.getBody())));
+        MapResponseModel response = objectMapper.readValue(body, MapResponseModel.class);
+        assertEquals(CUSTOM_HEADER_VALUE, response.getValues().get(CUSTOM_HEADER_KEY));
+    }
+
+    @Test
+    public void stream_proxyStream_validResponse() throws IOException {
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/headers", "GET")
+                .json()
+                .header(CUSTOM_HEADER_KEY, CUSTOM_HEADER_VALUE)
+                .build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        handler.proxyStream(new ByteArrayInputStream(objectMapper.writeValueAsBytes(request)), output, lambdaContext);
+        AwsProxyResponse response = objectMapper.readValue(output.toByteArray(), AwsProxyResponse.class);
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/json", response.getHeaders().get("Content-Type"));
+
+        validateMapResponseModel(response);
+    }
+
+    @Test
+    public void stream_proxyStream_unknownEventPropertiesIgnored() throws IOException {
+        String event = "{\"httpMethod\": \"GET\", \"path\": \"/echo/status-code\", \"resource\": \"/{proxy+}\", "
+                       + "\"queryStringParameters\": {\"status\": \"201\"}, \"isBase64Encoded\": false, "
+                       + "\"requestContext\": {\"stage\": \"test\", \"protocol\": \"HTTP/1.1\"}}";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        handler.proxyStream(new ByteArrayInputStream(event.getBytes()), output, lambdaContext);
+        AwsProxyResponse response = objectMapper.readValue(output.toByteArray(), AwsProxyResponse.class);
+        assertEquals(201, response.getStatusCode());
+    }
+
+    @Test
+    public void stream_proxyStream_invalidEventReturns500() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        handler.proxyStream(new ByteArrayInputStream("{ not json".getBytes()), output, lambdaContext);
+        AwsProxyResponse response = objectMapper.readValue(output.toByteArray(), AwsProxyResponse.class);
+        assertEquals(500, response.getStatusCode());
+    }
+
+    @Test
+    public void routes_resourceModel_resourceMethodsListed() {
+        List<ContainerRoute> routes = handler.getRoutes();
+
+        assertTrue(routes.stream().anyMatch(r -> "GET".equals(r.getHttpMethod()) && "/echo/headers".equals(r.getPath())));
+        assertTrue(routes.stream().anyMatch(r -> "POST".equals(r.getHttpMethod()) && "/echo/json-body".equals(r.getPath())));
+    }
+
+    @Test
+    public void warmup_getRoutes_containerStillServesRequests() throws ContainerInitializationException {
+        handler.warmup();
+
+        AwsProxyResponse output = handler.proxy(new AwsProxyRequestBuilder("/echo/status-code", "GET")
+                                                        .queryString("status", "201")
+                                                        .build(), lambdaContext);
+        assertEquals(201, output.getStatusCode());
+    }
+
+    @Test
+    public void startupTimeline_handlerCreated_jerseyStepsRecorded() {
+        List<StartupTimeline.Step> steps = StartupTimeline.getInstance().getSteps();
+
+        assertTrue(steps.stream().anyMatch(s -> "jersey.applicationHandler".equals(s.getName()) && s.getWallNanos() > 0));
+        assertTrue(steps.stream().anyMatch(s -> "jersey.startup".equals(s.getName())));
+    }
+
     private void validateMapResponseModel(AwsProxyResponse output) {
         try {
             MapResponseModel response = objectMapper.readValue(output.getBody(), MapResponseModel.class);
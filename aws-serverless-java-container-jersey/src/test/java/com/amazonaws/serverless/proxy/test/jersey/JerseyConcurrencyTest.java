@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.test.jersey;
+
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.jersey.JerseyAwsProxyServletRequestFactory;
+import com.amazonaws.serverless.proxy.jersey.JerseyLambdaContainerHandler;
+import com.amazonaws.serverless.proxy.test.jersey.model.MapResponseModel;
+import com.amazonaws.serverless.proxy.test.jersey.model.SingleValueModel;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.process.internal.RequestScoped;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Sends requests to a single Jersey handler from many threads and verifies that each response belongs to its request
+ */
+public class JerseyConcurrencyTest {
+    private static final String REQUEST_ID_HEADER = "x-request-id";
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 100;
+
+    private static ObjectMapper objectMapper = new ObjectMapper();
+    private static ResourceConfig app = new ResourceConfig().register(EchoJerseyResource.class)
+                                                            .register(new AbstractBinder() {
+                                                                @Override
+                                                                protected void configure() {
+                                                                    bindFactory(JerseyAwsProxyServletRequestFactory.class)
+                                                                            .to(HttpServletRequest.class)
+                                                                            .in(RequestScoped.class);
+                                                                }
+                                                            });
+    private static JerseyLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler = JerseyLambdaContainerHandler.getAwsProxyHandler(app);
+
+    private static Context lambdaContext = new MockLambdaContext();
+
+    @Test
+    public void servletRequest_concurrentRequests_echoOwnHeader() throws Exception {
+        runConcurrently((thread, i) -> {
+            String id = thread + "-" + i;
+            AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/servlet-headers", "GET")
+                    .json()
+                    .header(REQUEST_ID_HEADER, id)
+                    .build();
+
+            AwsProxyResponse response = handler.proxy(request, lambdaContext);
+            assertEquals(200, response.getStatusCode());
+            MapResponseModel model = objectMapper.readValue(response.getBody(), MapResponseModel.class);
+            assertEquals(id, model.getValues().get(REQUEST_ID_HEADER));
+        });
+    }
+
+    @Test
+    public void authorizer_concurrentRequests_echoOwnPrincipal() throws Exception {
+        runConcurrently((thread, i) -> {
+            String principal = "principal-" + thread + "-" + i;
+            AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/authorizer-principal", "GET")
+                    .json()
+                    .authorizerPrincipal(principal)
+                    .build();
+
+            AwsProxyResponse response = handler.proxy(request, lambdaContext);
+            assertEquals(200, response.getStatusCode());
+            assertEquals(principal, objectMapper.readValue(response.getBody(), SingleValueModel.class).getValue());
+        });
+    }
+
+    private static void runConcurrently(RequestTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                results.add(executor.submit((Callable<Void>) () -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        task.run(thread, i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface RequestTask {
+        void run(int thread, int i) throws Exception;
+    }
+}
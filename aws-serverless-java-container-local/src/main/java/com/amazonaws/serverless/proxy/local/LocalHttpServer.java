@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.local;
+
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Embedded HTTP server that exposes a <code>LambdaContainerHandler</code> on a local port, for local development and
+ * load testing. Each HTTP request is translated into an <code>AwsProxyRequest</code> event and passed to the handler's
+ * <code>proxy</code> method with a <code>MockLambdaContext</code>, exactly like API Gateway would invoke the function.
+ *
+ * <pre>
+ * {@code
+ *   LocalHttpServer server = new LocalHttpServer(handler);
+ *   server.setPort(8080);
+ *   server.start();
+ * }
+ * </pre>
+ *
+ * The server is built on the JDK's <code>HttpServer</code>, connections are kept alive between requests and requests are
+ * handled by a fixed pool of worker threads. The container handler must support concurrent requests when more than one
+ * worker thread is configured. A <code>GET</code> request to the statistics path, <code>/__stats</code> by default,
+ * returns the throughput and latency of the requests served so far as JSON. A <code>DELETE</code> request to the same
+ * path resets them.
+ */
+public class LocalHttpServer {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    public static final int DEFAULT_PORT = 3000;
+    public static final String DEFAULT_HOST = "localhost";
+    public static final String DEFAULT_STAGE = "local";
+    public static final String DEFAULT_STATS_PATH = "/__stats";
+
+    private static final String CONTENT_TYPE_JSON = "application/json";
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, ?, ?> containerHandler;
+    private final LocalServerStats stats = new LocalServerStats();
+    private String host = DEFAULT_HOST;
+    private int port = DEFAULT_PORT;
+    private int workerThreads = Runtime.getRuntime().availableProcessors();
+    private String stage = DEFAULT_STAGE;
+    private String statsPath = DEFAULT_STATS_PATH;
+
+    private HttpServer server;
+    private ExecutorService workers;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private - Static
+    //-------------------------------------------------------------
+
+    private static ObjectMapper objectMapper = new ObjectMapper();
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Creates a new server for the given handler. The server does not listen until <code>start()</code> is called.
+     * @param containerHandler The container handler that receives the requests
+     */
+    public LocalHttpServer(LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, ?, ?> containerHandler) {
+        this.containerHandler = containerHandler;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Binds the server to the configured host and port and starts accepting requests
+     * @throws IOException When the server cannot bind to the port
+     * @throws IllegalStateException When the server is already running
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The server is already running on port " + getPort());
+        }
+
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(host, port), 0);
+        httpServer.createContext("/", new ProxyHttpHandler(containerHandler, stats, stage));
+        httpServer.createContext(statsPath, this::handleStats);
+
+        workers = Executors.newFixedThreadPool(workerThreads, new WorkerThreadFactory());
+        httpServer.setExecutor(workers);
+        httpServer.start();
+        stats.reset();
+        server = httpServer;
+    }
+
+
+    /**
+     * Stops the server and closes all connections, including idle keep-alive connections. The worker threads are given up
+     * to a second to finish the requests they are handling.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+
+        server.stop(0);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        workers = null;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    /**
+     * The port the server listens on. Once the server is started this is the bound port, which is useful when the
+     * server was configured with port 0 to pick a free port.
+     * @return The port number
+     */
+    public synchronized int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+
+    /**
+     * Sets the port the server listens on. The default value is {@value #DEFAULT_PORT}, 0 picks a free port.
+     * @param port The port number
+     */
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+
+    /**
+     * Sets the host name or address the server binds to. The default value is {@value #DEFAULT_HOST}, use
+     * <code>0.0.0.0</code> to accept requests from other machines.
+     * @param host The host name or address
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+
+    /**
+     * Sets the number of threads that handle requests. The default is the number of available processors.
+     * @param workerThreads The number of worker threads
+     */
+    public void setWorkerThreads(int workerThreads) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("The server needs at least one worker thread");
+        }
+        this.workerThreads = workerThreads;
+    }
+
+
+    /**
+     * Sets the API Gateway stage name set in the request context of each event. The default value is
+     * {@value #DEFAULT_STAGE}.
+     * @param stage The stage name
+     */
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+
+    /**
+     * Sets the path of the statistics endpoint. The default value is {@value #DEFAULT_STATS_PATH}.
+     * @param statsPath The path, requests to this path are not passed to the container handler
+     */
+    public void setStatsPath(String statsPath) {
+        this.statsPath = statsPath;
+    }
+
+
+    /**
+     * The statistics for the requests served by this server
+     * @return The server statistics
+     */
+    public LocalServerStats getStats() {
+        return stats;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            switch (exchange.getRequestMethod()) {
+            case "GET":
+                byte[] body = objectMapper.writeValueAsBytes(stats.toMap());
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_JSON);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+                break;
+            case "DELETE":
+                stats.reset();
+                exchange.sendResponseHeaders(204, -1);
+                break;
+            default:
+                exchange.getResponseHeaders().set("Allow", "GET, DELETE");
+                exchange.sendResponseHeaders(405, -1);
+                break;
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner Classes
+    //-------------------------------------------------------------
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "local-http-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
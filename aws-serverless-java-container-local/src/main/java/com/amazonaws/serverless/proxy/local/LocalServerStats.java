@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.local;
+
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Throughput and latency statistics collected by the <code>LocalHttpServer</code>. Latencies are measured from the
+ * moment the server receives the request headers to the moment the container handler returns the response, and
+ * percentiles are computed over the last {@value #LATENCY_SAMPLES} requests. Requests to the statistics endpoint are not recorded.
+ */
+public class LocalServerStats {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    static final int LATENCY_SAMPLES = 8192;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final long[] latencyNanos = new long[LATENCY_SAMPLES];
+    private long startNanos = System.nanoTime();
+    private long requestCount;
+    private long errorCount;
+    private long maxLatencyNanos;
+    private long totalLatencyNanos;
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Clears all the counters and restarts the throughput measurement
+     */
+    public synchronized void reset() {
+        Arrays.fill(latencyNanos, 0);
+        startNanos = System.nanoTime();
+        requestCount = 0;
+        errorCount = 0;
+        maxLatencyNanos = 0;
+        totalLatencyNanos = 0;
+    }
+
+
+    /**
+     * The number of requests served since the server started or the statistics were reset
+     * @return The request count
+     */
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+
+    /**
+     * The number of requests answered with a 5xx status code
+     * @return The error count
+     */
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+
+    /**
+     * The average number of requests served per second since the server started or the statistics were reset
+     * @return The throughput in requests per second
+     */
+    public synchronized double getThroughput() {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        return elapsedSeconds <= 0 ? 0 : requestCount / elapsedSeconds;
+    }
+
+
+    /**
+     * Returns a latency percentile over the most recent requests
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency in milliseconds, 0 if no request has been served
+     */
+    public synchronized double getLatencyPercentile(double percentile) {
+        int samples = (int) Math.min(requestCount, LATENCY_SAMPLES);
+        if (samples == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(latencyNanos, samples);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * samples) - 1;
+        return toMillis(sorted[Math.max(0, Math.min(index, samples - 1))]);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    synchronized void record(long latency, int statusCode) {
+        latencyNanos[(int) (requestCount % LATENCY_SAMPLES)] = latency;
+        requestCount++;
+        totalLatencyNanos += latency;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        if (statusCode >= 500) {
+            errorCount++;
+        }
+    }
+
+
+    /**
+     * @return The statistics as served by the statistics endpoint
+     */
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", requestCount == 0 ? 0 : toMillis(totalLatencyNanos / requestCount));
+        latency.put("p50", getLatencyPercentile(50));
+        latency.put("p90", getLatencyPercentile(90));
+        latency.put("p99", getLatencyPercentile(99));
+        latency.put("max", toMillis(maxLatencyNanos));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requestCount);
+        stats.put("errors", errorCount);
+        stats.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        stats.put("throughput", getThroughput());
+        stats.put("latencyMillis", latency);
+        return stats;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.local;
+
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Translates the requests received by the <code>LocalHttpServer</code> into <code>AwsProxyRequest</code> events, passes
+ * them to the container handler and writes the <code>AwsProxyResponse</code> back to the connection.
+ *
+ * Events have the same shape as the ones produced by the <code>AwsProxyRequestBuilder</code>. Like API Gateway, the
+ * event only keeps the last value of repeated headers and query string parameters. Bodies that are not valid UTF-8, or
+ * that declare a <code>Content-Encoding</code>, are passed base64-encoded.
+ */
+class ProxyHttpHandler implements HttpHandler {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    private static final String HEADER_TRANSFER_ENCODING = "Transfer-Encoding";
+    private static final String HEADER_CONNECTION = "Connection";
+    private static final String METHOD_HEAD = "HEAD";
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, ?, ?> containerHandler;
+    private final LocalServerStats stats;
+    private final String stage;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    ProxyHttpHandler(LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, ?, ?> containerHandler, LocalServerStats stats, String stage) {
+        this.containerHandler = containerHandler;
+        this.stats = stats;
+        this.stage = stage;
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - HttpHandler
+    //-------------------------------------------------------------
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            AwsProxyResponse response;
+            try {
+                response = containerHandler.proxy(toAwsProxyRequest(exchange), new MockLambdaContext());
+            } catch (RuntimeException e) {
+                // the container handler answers application errors itself, this is a failure of the translation
+                e.printStackTrace();
+                stats.record(System.nanoTime() - startNanos, 502);
+                exchange.sendResponseHeaders(502, -1);
+                return;
+            }
+            // recorded before the response is sent so that a client reading the stats right after sees this request
+            stats.record(System.nanoTime() - startNanos, response.getStatusCode());
+            writeResponse(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    AwsProxyRequest toAwsProxyRequest(HttpExchange exchange) throws IOException {
+        AwsProxyRequestBuilder builder = new AwsProxyRequestBuilder(exchange.getRequestURI().getPath(), exchange.getRequestMethod())
+                .stage(stage);
+
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            List<String> values = header.getValue();
+            if (values != null && !values.isEmpty()) {
+                builder.header(header.getKey(), values.get(values.size() - 1));
+            }
+        }
+
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                if (parameter.isEmpty()) {
+                    continue;
+                }
+                int separator = parameter.indexOf('=');
+                String key = separator < 0 ? parameter : parameter.substring(0, separator);
+                String value = separator < 0 ? "" : parameter.substring(separator + 1);
+                builder.queryString(decode(key), decode(value));
+            }
+        }
+
+        AwsProxyRequest request = builder.build();
+        if (exchange.getRemoteAddress() != null && exchange.getRemoteAddress().getAddress() != null) {
+            request.getRequestContext().getIdentity().setSourceIp(exchange.getRemoteAddress().getAddress().getHostAddress());
+        }
+
+        byte[] body = readBody(exchange.getRequestBody());
+        if (body.length > 0) {
+            String text = exchange.getRequestHeaders().containsKey(HEADER_CONTENT_ENCODING) ? null : decodeUtf8(body);
+            if (text != null) {
+                request.setBody(text);
+            } else {
+                request.setBody(Base64.getEncoder().encodeToString(body));
+                request.setBase64Encoded(true);
+            }
+        }
+        return request;
+    }
+
+
+    void writeResponse(HttpExchange exchange, AwsProxyResponse response) throws IOException {
+        Headers responseHeaders = exchange.getResponseHeaders();
+        if (response.getHeaders() != null) {
+            for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                // the server frames the body and manages the connection itself
+                if (header.getValue() == null
+                        || HEADER_CONTENT_LENGTH.equalsIgnoreCase(header.getKey())
+                        || HEADER_TRANSFER_ENCODING.equalsIgnoreCase(header.getKey())
+                        || HEADER_CONNECTION.equalsIgnoreCase(header.getKey())) {
+                    continue;
+                }
+                responseHeaders.set(header.getKey(), header.getValue());
+            }
+        }
+
+        byte[] body;
+        if (response.getBody() == null) {
+            body = new byte[0];
+        } else if (response.isBase64Encoded()) {
+            body = Base64.getDecoder().decode(response.getBody());
+        } else {
+            body = response.getBody().getBytes(StandardCharsets.UTF_8);
+        }
+
+        int statusCode = response.getStatusCode();
+        if (body.length == 0 || METHOD_HEAD.equalsIgnoreCase(exchange.getRequestMethod()) || statusCode == 204 || statusCode == 304) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static byte[] readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        return body.toByteArray();
+    }
+
+
+    /**
+     * @return The decoded text, null if the body is not valid UTF-8
+     */
+    private static String decodeUtf8(byte[] body) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(body))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            // malformed escapes are passed as they are
+            return value;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.amazonaws.serverless.proxy.local;
+
+
+import com.amazonaws.serverless.proxy.jersey.JerseyLambdaContainerHandler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+
+public class LocalHttpServerTest {
+    private static final byte[] BINARY = { (byte) 0xFF, 0x00, (byte) 0xC3, 0x28, 0x7F };
+
+    private static ObjectMapper objectMapper = new ObjectMapper();
+
+    private LocalHttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new LocalHttpServer(JerseyLambdaContainerHandler.getAwsProxyHandler(new ResourceConfig().register(TestResource.class)));
+        server.setPort(0);
+        server.setWorkerThreads(4);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void get_queryAndHeader_translatedToEvent() throws IOException {
+        HttpURLConnection connection = open("/test/hello?name=J%C3%BCrgen&name=Bob");
+        connection.setRequestProperty("X-Greeting", "Hi");
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("Hi Bob", new String(read(connection.getInputStream()), StandardCharsets.UTF_8));
+
+        connection = open("/test/hello?name=J%C3%BCrgen");
+        assertEquals("Hello J\u00fcrgen", new String(read(connection.getInputStream()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void post_binaryBody_roundTripsThroughBase64() throws IOException {
+        HttpURLConnection connection = open("/test/bytes");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", MediaType.APPLICATION_OCTET_STREAM);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(BINARY);
+        }
+
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(BINARY, read(connection.getInputStream()));
+    }
+
+    @Test
+    public void post_textBody_passedAsText() throws IOException {
+        HttpURLConnection connection = open("/test/text");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", MediaType.TEXT_PLAIN + "; charset=UTF-8");
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write("M\u00fcnchen".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("7:M\u00fcnchen", new String(read(connection.getInputStream()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void keepAlive_twoRequestsOnOneConnection_bothAnswered() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            InputStream input = socket.getInputStream();
+            for (String name : new String[] { "Ann", "Bob" }) {
+                output.write(("GET /test/hello?name=" + name + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+                assertEquals("Hello " + name, readHttpResponse(input));
+            }
+        }
+    }
+
+    @Test
+    public void stats_afterRequests_reportsCountsAndLatency() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, open("/test/hello?name=x").getResponseCode());
+        }
+        assertEquals(404, open("/test/missing").getResponseCode());
+
+        HttpURLConnection connection = open(LocalHttpServer.DEFAULT_STATS_PATH);
+        assertEquals(200, connection.getResponseCode());
+        JsonNode stats = objectMapper.readTree(connection.getInputStream());
+        assertEquals(4, stats.get("requests").asLong());
+        assertEquals(0, stats.get("errors").asLong());
+        assertTrue(stats.get("latencyMillis").get("max").asDouble() > 0);
+        assertEquals(4, server.getStats().getRequestCount());
+
+        connection = open(LocalHttpServer.DEFAULT_STATS_PATH);
+        connection.setRequestMethod("DELETE");
+        assertEquals(204, connection.getResponseCode());
+        assertEquals(0, server.getStats().getRequestCount());
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+    }
+
+    private static byte[] read(InputStream input) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        input.close();
+        return body.toByteArray();
+    }
+
+    /**
+     * Reads a single response with a Content-Length header from the connection, leaving it open for the next one
+     */
+    private static String readHttpResponse(InputStream input) throws IOException {
+        int contentLength = -1;
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            int c = input.read();
+            assertNotEquals("Connection closed by the server", -1, c);
+            if (c == '\n') {
+                String header = line.toString().trim();
+                if (header.isEmpty()) {
+                    break;
+                }
+                if (header.toLowerCase().startsWith("content-length:")) {
+                    contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                }
+                line.setLength(0);
+            } else {
+                line.append((char) c);
+            }
+        }
+
+        assertTrue(contentLength >= 0);
+        byte[] body = new byte[contentLength];
+        int offset = 0;
+        while (offset < contentLength) {
+            int read = input.read(body, offset, contentLength - offset);
+            assertNotEquals(-1, read);
+            offset += read;
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Path("/test")
+    public static class TestResource {
+        @Path("/hello") @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String hello(@QueryParam("name") String name, @HeaderParam("X-Greeting") String greeting) {
+            return (greeting == null ? "Hello" : greeting) + " " + name;
+        }
+
+        @Path("/bytes") @POST
+        @Produces(MediaType.APPLICATION_OCTET_STREAM)
+        public byte[] bytes(byte[] body) {
+            return body;
+        }
+
+        @Path("/text") @POST
+        @Produces(MediaType.TEXT_PLAIN)
+        public String text(String body) {
+            return body.length() + ":" + body;
+        }
+    }
+}
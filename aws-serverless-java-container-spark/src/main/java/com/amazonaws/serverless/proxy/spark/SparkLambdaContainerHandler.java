@@ -27,11 +27,15 @@ import com.amazonaws.services.lambda.runtime.Context;
 import spark.Service;
 import spark.Spark;
 import spark.embeddedserver.EmbeddedServers;
+import spark.route.HttpMethod;
+import spark.route.Routes;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Implementation of the <code>LambdaContainerHandler</code> object that supports the Spark framework: http://sparkjava.com/
@@ -66,6 +70,13 @@ public class SparkLambdaContainerHandler<RequestType, ResponseType> extends Lamb
     private static final String LAMBDA_EMBEDDED_SERVER_CODE = "AWS_LAMBDA";
 
 
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private Service sparkService;
+
+
     //-------------------------------------------------------------
     // Variables - Private - Static
     //-------------------------------------------------------------
@@ -105,6 +116,8 @@ public class SparkLambdaContainerHandler<RequestType, ResponseType> extends Lamb
             throws ContainerInitializationException {
         super(requestReader, responseWriter, securityContextWriter, exceptionHandler);
 
+        // the step is only reported when the embedded server could be registered
+        StartupTimeline.Step startupStep = StartupTimeline.getInstance().start("spark.embeddedServer");
         EmbeddedServers.add(LAMBDA_EMBEDDED_SERVER_CODE, new LambdaEmbeddedServerFactory());
 
         // TODO: This is pretty bad but we are not given access to the embeddedServerIdentifier property of the
@@ -112,7 +125,7 @@ public class SparkLambdaContainerHandler<RequestType, ResponseType> extends Lamb
         try {
             Method serviceInstanceMethod = Spark.class.getDeclaredMethod("getInstance");
             serviceInstanceMethod.setAccessible(true);
-            Service sparkService = (Service) serviceInstanceMethod.invoke(null);
+            sparkService = (Service) serviceInstanceMethod.invoke(null);
             Field serverIdentifierField = Service.class.getDeclaredField("embeddedServerIdentifier");
             serverIdentifierField.setAccessible(true);
             serverIdentifierField.set(sparkService, LAMBDA_EMBEDDED_SERVER_CODE);
@@ -132,6 +145,7 @@ public class SparkLambdaContainerHandler<RequestType, ResponseType> extends Lamb
             e.printStackTrace();
             throw new ContainerInitializationException("Cannot invoke getInstance method in Spark class", e);
         }
+        startupStep.close();
     }
 
 
@@ -140,8 +154,8 @@ public class SparkLambdaContainerHandler<RequestType, ResponseType> extends Lamb
     //-------------------------------------------------------------
 
     @Override
-    protected AwsHttpServletResponse getContainerResponse(CountDownLatch latch) {
-        return new AwsHttpServletResponse(latch);
+    protected AwsHttpServletResponse getContainerResponse(AwsProxyHttpServletRequest containerRequest, ResponseLatch latch) {
+        return new AwsHttpServletResponse(containerRequest, latch, getResponseBufferPool());
     }
 
 
@@ -154,4 +168,81 @@ public class SparkLambdaContainerHandler<RequestType, ResponseType> extends Lamb
 
         embeddedServer.handle(httpServletRequest, httpServletResponse);
     }
+
+
+    /**
+     * Returns the routes defined in Spark so far. Filters defined with <code>before</code> and <code>after</code> are
+     * not reported. Spark does not expose its routes, they are read from the private fields of the <code>Service</code>
+     * and <code>Routes</code> objects.
+     *
+     * @return The routes of the Spark application
+     * @throws ContainerInitializationException When the routes cannot be read from the Spark objects
+     */
+    @Override
+    public List<ContainerRoute> getRoutes() throws ContainerInitializationException {
+        Routes routes = getSparkRoutes();
+        if (routes == null) {
+            return Collections.emptyList();
+        }
+
+        try {
+            Field entriesField = Routes.class.getDeclaredField("routes");
+            entriesField.setAccessible(true);
+            List<ContainerRoute> containerRoutes = new ArrayList<>();
+            for (Object entry : new ArrayList<>((List<?>) entriesField.get(routes))) {
+                HttpMethod method = (HttpMethod) getRouteEntryField(entry, "httpMethod");
+                if (method == HttpMethod.before || method == HttpMethod.after || method == HttpMethod.unsupported) {
+                    continue;
+                }
+                containerRoutes.add(new ContainerRoute(method.name(), (String) getRouteEntryField(entry, "path")));
+            }
+            return containerRoutes;
+        } catch (NoSuchFieldException e) {
+            throw new ContainerInitializationException("Cannot find routes field in Routes class", e);
+        } catch (IllegalAccessException e) {
+            throw new ContainerInitializationException("Cannot access routes field in Routes class", e);
+        }
+    }
+
+
+    /**
+     * Waits for Spark to start the embedded server, when routes have been defined, so that the snapshot contains the
+     * initialized route matcher. Then runs the container's checkpoint preparation.
+     *
+     * @throws ContainerInitializationException When the routes cannot be read from the Spark objects
+     */
+    @Override
+    public void beforeCheckpoint() throws ContainerInitializationException {
+        // Spark starts the embedded server on its own thread when the first route is defined
+        if (getSparkRoutes() != null) {
+            Spark.awaitInitialization();
+            embeddedServer = LambdaEmbeddedServerFactory.getServerInstance();
+        }
+        super.beforeCheckpoint();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private Routes getSparkRoutes() throws ContainerInitializationException {
+        try {
+            Field routesField = Service.class.getDeclaredField("routes");
+            routesField.setAccessible(true);
+            return (Routes) routesField.get(sparkService);
+        } catch (NoSuchFieldException e) {
+            throw new ContainerInitializationException("Cannot find routes field in Service class", e);
+        } catch (IllegalAccessException e) {
+            throw new ContainerInitializationException("Cannot access routes field in Service class", e);
+        }
+    }
+
+
+    private static Object getRouteEntryField(Object entry, String name)
+            throws NoSuchFieldException, IllegalAccessException {
+        Field field = entry.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(entry);
+    }
 }
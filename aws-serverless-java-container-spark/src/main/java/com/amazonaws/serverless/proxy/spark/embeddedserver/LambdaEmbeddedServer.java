@@ -1,5 +1,7 @@
 package com.amazonaws.serverless.proxy.spark.embeddedserver;
 
+import com.amazonaws.serverless.proxy.internal.StartupTimeline;
+
 import spark.embeddedserver.EmbeddedServer;
 import spark.embeddedserver.jetty.websocket.WebSocketHandlerWrapper;
 import spark.http.matching.MatcherFilter;
@@ -51,8 +53,10 @@ public class LambdaEmbeddedServer
                       int maxThreads,
                       int minThreads,
                       int threadIdleTimeoutMillis) {
-        sparkFilter = new MatcherFilter(applicationRoutes, staticFilesConfiguration, false, hasMultipleHandler);
-        sparkFilter.init(null);
+        try (StartupTimeline.Step step = StartupTimeline.getInstance().start("spark.matcherFilter")) {
+            sparkFilter = new MatcherFilter(applicationRoutes, staticFilesConfiguration, false, hasMultipleHandler);
+            sparkFilter.init(null);
+        }
 
         countDownLatch.countDown();
 
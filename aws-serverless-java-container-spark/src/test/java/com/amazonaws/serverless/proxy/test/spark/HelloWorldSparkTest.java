@@ -2,6 +2,7 @@ package com.amazonaws.serverless.proxy.test.spark;
 
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.ContainerRoute;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spark.SparkLambdaContainerHandler;
@@ -12,6 +13,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import junit.framework.TestCase;
 
+import java.util.List;
+
+import static spark.Spark.before;
 import static spark.Spark.get;
 
 public class HelloWorldSparkTest extends TestCase {
@@ -36,4 +40,16 @@ public class HelloWorldSparkTest extends TestCase {
             e.printStackTrace();
         }
     }
+
+    public void testRoutes() throws ContainerInitializationException {
+        SparkLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler
+                = SparkLambdaContainerHandler.getAwsProxyHandler();
+
+        get("/pets/:petId", (req, res) -> req.params(":petId"));
+        before("/pets/*", (req, res) -> res.header("X-Filtered", "true"));
+
+        List<ContainerRoute> routes = handler.getRoutes();
+        assertTrue(routes.stream().anyMatch(r -> "GET".equals(r.getHttpMethod()) && "/pets/:petId".equals(r.getPath())));
+        assertFalse(routes.stream().anyMatch(r -> "BEFORE".equals(r.getHttpMethod())));
+    }
 }
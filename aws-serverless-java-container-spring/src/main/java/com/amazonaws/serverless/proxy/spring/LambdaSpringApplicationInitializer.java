@@ -12,14 +12,13 @@
  */
 package com.amazonaws.serverless.proxy.spring;
 
-import org.springframework.context.ApplicationListener;
+import com.amazonaws.serverless.proxy.internal.StartupTimeline;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.ConfigurableWebApplicationContext;
 import org.springframework.web.context.ContextLoaderListener;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
-import org.springframework.web.context.support.ServletRequestHandledEvent;
 import org.springframework.web.servlet.DispatcherServlet;
 
 import javax.servlet.*;
@@ -27,6 +26,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Custom implementation of Spring's `WebApplicationInitializer`. Uses internal variables to keep application state
@@ -34,13 +34,35 @@ import java.util.*;
  * and starts the Spring application. This class assumes that the implementation of `HttpServletRequest` that is passed
  * in correctly implements the `getServletContext` method.
  *
- * State is kept using the `initialized` boolean variable. Each time a new event is received, the app sets the
- * `currentResponse` private property to the value of the new `HttpServletResponse` object. This is used to intercept
- * Spring notifications for the `ServletRequestHandledEvent` and call the flush method to release the latch.
+ * Once the `DispatcherServlet` has handled a request, the `dispatch` method flushes the response to release the latch.
+ * The initializer does not keep any per-request state, so concurrent requests can be dispatched once the application
+ * has started.
+ *
+ * The `onStartup` method times each `StartupPhase` as a step of the shared `StartupTimeline`, which the container
+ * handler logs after the first request.
  */
 public class LambdaSpringApplicationInitializer implements WebApplicationInitializer {
     public static final String ERROR_NO_CONTEXT = "No application context or configuration classes provided";
 
+    /**
+     * The phases of the application startup, in the order they are executed by `onStartup`. The bean definition and
+     * singleton phases are only measured when the initializer refreshes the application context.
+     */
+    public enum StartupPhase {
+        /**
+         * Loading the bean definitions, including the `@Configuration` classes parsed by the registry post-processors,
+         * and running the `BeanFactoryPostProcessor` objects added to the context
+         */
+        BEAN_DEFINITIONS,
+        /**
+         * Running the application's own `BeanFactoryPostProcessor` beans, registering the `BeanPostProcessor` beans and
+         * instantiating the singleton beans, up to the end of the application context refresh
+         */
+        SINGLETONS,
+        /** Initializing the `DispatcherServlet` handler mappings, adapters and resolvers */
+        DISPATCHER_SERVLET
+    }
+
     private static final String DEFAULT_SERVLET_NAME = "aws-servless-java-container";
 
     // Configuration variables that can be passed in
@@ -52,9 +74,7 @@ public class LambdaSpringApplicationInitializer implements WebApplicationInitial
     // Dynamically instantiated properties
     private ServletConfig dispatcherConfig;
     private DispatcherServlet dispatcherServlet;
-
-    // The current response is used to release the latch when Spring emits the request handled event
-    private HttpServletResponse currentResponse;
+    private final long[] startupPhaseNanos = new long[StartupPhase.values().length];
 
     /**
      * Creates a new instance of the WebApplicationInitializer
@@ -81,8 +101,12 @@ public class LambdaSpringApplicationInitializer implements WebApplicationInitial
 
     public void dispatch(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        currentResponse = response;
-        dispatcherServlet.service(request, response);
+        try {
+            dispatcherServlet.service(request, response);
+        } finally {
+            // the DispatcherServlet has completed the request, this releases the latch in the container handler
+            response.flushBuffer();
+        }
     }
 
     public List<String> getSpringProfiles() {
@@ -93,6 +117,15 @@ public class LambdaSpringApplicationInitializer implements WebApplicationInitial
         this.springProfiles = new ArrayList<>(springProfiles);
     }
 
+    /**
+     * The time spent in a phase of the `onStartup` method
+     * @param phase The startup phase
+     * @return The duration in nanoseconds, 0 if the phase was not executed or the application has not started yet
+     */
+    public long getStartupNanos(StartupPhase phase) {
+        return startupPhaseNanos[phase.ordinal()];
+    }
+
     @Override
     public void onStartup(ServletContext servletContext) throws ServletException {
         if (springProfiles != null) {
@@ -103,31 +136,40 @@ public class LambdaSpringApplicationInitializer implements WebApplicationInitial
         dispatcherConfig = new DefaultDispatcherConfig(servletContext);
         applicationContext.setServletConfig(dispatcherConfig);
 
-        // Configure the listener for the request handled events. All we do here is release the latch
-        applicationContext.addApplicationListener(new ApplicationListener<ServletRequestHandledEvent>() {
-            @Override
-            public void onApplicationEvent(ServletRequestHandledEvent servletRequestHandledEvent) {
-                try {
-                    currentResponse.flushBuffer();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException("Could not flush response buffer", e);
-                }
-            }
-        });
-
         // Manage the lifecycle of the root application context
         this.addListener(new ContextLoaderListener(applicationContext));
 
         // Register and map the dispatcher servlet
         dispatcherServlet = new DispatcherServlet(applicationContext);
 
+        StartupTimeline startupTimeline = StartupTimeline.getInstance();
         if (refreshContext) {
+            StartupTimeline.Step beanDefinitions = startupTimeline.start("spring.beanDefinitions");
+            AtomicReference<StartupTimeline.Step> singletons = new AtomicReference<>();
+            // post processors added to the context run after the registry post processors, which parse the
+            // @Configuration classes, and before the BeanFactoryPostProcessor beans defined by the application
+            applicationContext.addBeanFactoryPostProcessor(beanFactory -> {
+                if (singletons.get() == null) {
+                    beanDefinitions.close();
+                    singletons.set(startupTimeline.start("spring.singletons"));
+                }
+            });
             dispatcherServlet.refresh();
+            beanDefinitions.close();
+            if (singletons.get() != null) {
+                singletons.get().close();
+            }
+
+            startupPhaseNanos[StartupPhase.BEAN_DEFINITIONS.ordinal()] = beanDefinitions.getWallNanos();
+            startupPhaseNanos[StartupPhase.SINGLETONS.ordinal()] = singletons.get() == null ? 0 : singletons.get().getWallNanos();
         }
 
-        dispatcherServlet.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
-        dispatcherServlet.init(dispatcherConfig);
+        try (StartupTimeline.Step dispatcherStep = startupTimeline.start("spring.dispatcherServlet")) {
+            dispatcherServlet.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+            dispatcherServlet.init(dispatcherConfig);
+            dispatcherStep.close();
+            startupPhaseNanos[StartupPhase.DISPATCHER_SERVLET.ordinal()] = dispatcherStep.getWallNanos();
+        }
 
         notifyStartListeners(servletContext);
     }
@@ -20,13 +20,21 @@ import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequest;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyServletContext;
 import com.amazonaws.services.lambda.runtime.Context;
 import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.concurrent.CountDownLatch;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Spring implementation of the `LambdaContainerHandler` abstract class. This class uses the `LambdaSpringApplicationInitializer`
@@ -37,9 +45,10 @@ import java.util.concurrent.CountDownLatch;
  */
 public class SpringLambdaContainerHandler<RequestType, ResponseType> extends LambdaContainerHandler<RequestType, ResponseType, AwsProxyHttpServletRequest, AwsHttpServletResponse> {
     private LambdaSpringApplicationInitializer initializer;
+    private ConfigurableWebApplicationContext applicationContext;
 
     // State vars
-    private boolean initialized;
+    private volatile boolean initialized;
 
     /**
      * Creates a default SpringLambdaContainerHandler initialized with the `AwsProxyRequest` and `AwsProxyResponse` objects
@@ -77,6 +86,34 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Lam
         );
     }
 
+    /**
+     * Creates a default SpringLambdaContainerHandler initialized with the `AwsProxyRequest` and `AwsProxyResponse` objects
+     * and starts the Spring application before returning, see the `initialize` method.
+     * @param config A set of classes annotated with the Spring @Configuration annotation
+     * @return A started instance of the `SpringLambdaContainerHandler`
+     * @throws ContainerInitializationException When the Spring application cannot be started
+     */
+    public static SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> getInitializedAwsProxyHandler(Class... config)
+            throws ContainerInitializationException {
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler = getAwsProxyHandler(config);
+        handler.initialize();
+        return handler;
+    }
+
+    /**
+     * Creates a default SpringLambdaContainerHandler initialized with the `AwsProxyRequest` and `AwsProxyResponse` objects
+     * and starts the Spring application before returning, see the `initialize` method.
+     * @param applicationContext A custom ConfigurableWebApplicationContext to be used
+     * @return A started instance of the `SpringLambdaContainerHandler`
+     * @throws ContainerInitializationException When the Spring application cannot be started
+     */
+    public static SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> getInitializedAwsProxyHandler(ConfigurableWebApplicationContext applicationContext)
+            throws ContainerInitializationException {
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler = getAwsProxyHandler(applicationContext);
+        handler.initialize();
+        return handler;
+    }
+
     /**
      * Creates a new container handler with the given reader and writer objects
      *
@@ -93,22 +130,36 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Lam
                                         ConfigurableWebApplicationContext applicationContext)
             throws ContainerInitializationException {
         super(requestReader, responseWriter, securityContextWriter, exceptionHandler);
+        this.applicationContext = applicationContext;
         initializer = new LambdaSpringApplicationInitializer(applicationContext);
     }
 
+    /**
+     * Sets whether the application context is refreshed when the application starts. The value has no effect once the
+     * application has been started by the first request or by the `initialize` method.
+     * @param refreshContext false if the application context has already been refreshed
+     */
     public void setRefreshContext(boolean refreshContext) {
         this.initializer.setRefreshContext(refreshContext);
     }
 
     @Override
-    protected AwsHttpServletResponse getContainerResponse(CountDownLatch latch) {
-        return new AwsHttpServletResponse(latch);
+    protected AwsHttpServletResponse getContainerResponse(AwsProxyHttpServletRequest containerRequest, ResponseLatch latch) {
+        return new AwsHttpServletResponse(containerRequest, latch, getResponseBufferPool());
     }
 
+    /**
+     * Activates the given Spring profiles when the application starts
+     * @param profiles The profile names
+     * @throws ContainerInitializationException When the application has already been started
+     */
     public void activateSpringProfiles(String... profiles) throws ContainerInitializationException {
         if (initializer == null) {
             throw new ContainerInitializationException(LambdaSpringApplicationInitializer.ERROR_NO_CONTEXT, null);
         }
+        if (initialized) {
+            throw new ContainerInitializationException("Spring profiles must be activated before the application is started", null);
+        }
 
         initializer.setSpringProfiles(Arrays.asList(profiles));
     }
@@ -119,13 +170,84 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Lam
             throw new ContainerInitializationException(LambdaSpringApplicationInitializer.ERROR_NO_CONTEXT, null);
         }
 
-        // wire up the application context on the first invocation
-        if (!initialized) {
-            ServletContext context = containerRequest.getServletContext();
-            initializer.onStartup(context);
-            initialized = true;
-        }
+        startApplication(containerRequest.getServletContext());
 
         initializer.dispatch(containerRequest, containerResponse);
     }
+
+    /**
+     * Returns the request mappings registered in the application context's <code>RequestMappingHandlerMapping</code>
+     * beans, starting the application if no request has been handled yet. Mappings that accept any HTTP method are
+     * reported as <code>GET</code> routes.
+     *
+     * @return The routes of the Spring application
+     * @throws ContainerInitializationException When the application context cannot be started
+     */
+    @Override
+    public List<ContainerRoute> getRoutes() throws ContainerInitializationException {
+        initialize();
+
+        List<ContainerRoute> routes = new ArrayList<>();
+        for (RequestMappingHandlerMapping mapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+                Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+                for (String pattern : info.getPatternsCondition().getPatterns()) {
+                    for (RequestMethod method : methods.isEmpty() ? Collections.singleton(RequestMethod.GET) : methods) {
+                        routes.add(new ContainerRoute(method.name(), pattern));
+                    }
+                }
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Starts the Spring application now instead of on the first request: refreshes the application context and
+     * initializes the `DispatcherServlet` with the shared `AwsProxyServletContext`. Calling this method from the
+     * function's initialization code moves the startup time to Lambda's init phase. Profiles must be activated before
+     * this method is called. The method does nothing if the application is already started.
+     * @throws ContainerInitializationException When the Spring application cannot be started
+     */
+    public void initialize() throws ContainerInitializationException {
+        if (initializer == null) {
+            throw new ContainerInitializationException(LambdaSpringApplicationInitializer.ERROR_NO_CONTEXT, null);
+        }
+        try {
+            startApplication(AwsProxyServletContext.getInstance());
+        } catch (ServletException e) {
+            throw new ContainerInitializationException("Could not start the Spring application", e);
+        }
+    }
+
+    /**
+     * Starts the Spring application, unless a request or the `initialize` method has already started it, so that the
+     * snapshot contains the refreshed application context. Then runs the container's checkpoint preparation.
+     * @throws ContainerInitializationException When the Spring application cannot be started
+     */
+    @Override
+    public void beforeCheckpoint() throws ContainerInitializationException {
+        initialize();
+        super.beforeCheckpoint();
+    }
+
+    /**
+     * The time spent in a phase of the application startup
+     * @param phase The startup phase
+     * @return The duration in nanoseconds, 0 if the phase was not executed or the application has not started yet
+     */
+    public long getStartupNanos(LambdaSpringApplicationInitializer.StartupPhase phase) {
+        return initializer == null ? 0 : initializer.getStartupNanos(phase);
+    }
+
+    private void startApplication(ServletContext servletContext) throws ServletException {
+        // wire up the application context on the first invocation, concurrent first requests wait for the startup
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    initializer.onStartup(servletContext);
+                    initialized = true;
+                }
+            }
+        }
+    }
 }
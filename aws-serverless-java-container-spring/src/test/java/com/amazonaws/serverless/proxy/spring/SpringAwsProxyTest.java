@@ -1,7 +1,13 @@
 package com.amazonaws.serverless.proxy.spring;
 
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.AwsProxyExceptionHandler;
+import com.amazonaws.serverless.proxy.internal.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.ContainerRoute;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyServletContext;
 import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
 import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
@@ -20,11 +26,15 @@ import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
 
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.Assert.*;
 
@@ -219,6 +229,56 @@ public class SpringAwsProxyTest {
         validateSingleValueModel(output, "https://api.myserver.com/prod/echo/request-Url");
     }
 
+    @Test
+    public void routes_requestMappings_listed() throws ContainerInitializationException {
+        List<ContainerRoute> routes = handler.getRoutes();
+
+        assertTrue(routes.stream().anyMatch(r -> "GET".equals(r.getHttpMethod()) && "/echo/headers".equals(r.getPath())));
+        assertTrue(routes.stream().anyMatch(r -> "POST".equals(r.getHttpMethod()) && "/echo/json-body".equals(r.getPath())));
+    }
+
+    @Test
+    public void warmup_getRoutes_containerStillServesRequests() throws ContainerInitializationException {
+        handler.warmup();
+
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/headers", "GET")
+                .json()
+                .header(CUSTOM_HEADER_KEY, CUSTOM_HEADER_VALUE)
+                .build();
+        AwsProxyResponse output = handler.proxy(request, lambdaContext);
+        assertEquals(200, output.getStatusCode());
+        validateMapResponseModel(output);
+    }
+
+    @Test
+    public void compression_jsonResponse_gzipEncoded() throws ContainerInitializationException, IOException {
+        AwsProxyHttpServletResponseWriter responseWriter = new AwsProxyHttpServletResponseWriter();
+        responseWriter.setCompressionEnabled(true);
+        responseWriter.setCompressionMinSize(0);
+        AnnotationConfigWebApplicationContext applicationContext = new AnnotationConfigWebApplicationContext();
+        applicationContext.register(EchoSpringAppConfig.class);
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> compressingHandler = new SpringLambdaContainerHandler<>(
+                new AwsProxyHttpServletRequestReader(), responseWriter, new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler(),
+                applicationContext);
+
+        AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/headers", "GET")
+                .json()
+                .header(CUSTOM_HEADER_KEY, CUSTOM_HEADER_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        AwsProxyResponse output = compressingHandler.proxy(request, lambdaContext);
+        assertEquals(200, output.getStatusCode());
+        assertTrue(output.isBase64Encoded());
+        assertEquals("gzip", output.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, output.getHeaders().get(HttpHeaders.VARY));
+        assertTrue(output.getHeaders().get(HttpHeaders.CONTENT_TYPE).contains("charset=UTF-8"));
+
+        GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(Base64.decodeBase64(output.getBody())));
+        MapResponseModel response = objectMapper.readValue(body, MapResponseModel.class);
+        assertEquals(CUSTOM_HEADER_VALUE, response.getValues().get(CUSTOM_HEADER_KEY));
+    }
+
     private void validateMapResponseModel(AwsProxyResponse output) {
         try {
             MapResponseModel response = objectMapper.readValue(output.getBody(), MapResponseModel.class);
@@ -0,0 +1,106 @@
+package com.amazonaws.serverless.proxy.spring;
+
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.spring.echoapp.EchoSpringAppConfig;
+import com.amazonaws.serverless.proxy.spring.echoapp.model.MapResponseModel;
+import com.amazonaws.serverless.proxy.spring.echoapp.model.SingleValueModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Sends requests to a single Spring handler from many threads and verifies that each response belongs to its request
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {EchoSpringAppConfig.class})
+@WebAppConfiguration
+@TestExecutionListeners(inheritListeners = false, listeners = {DependencyInjectionTestExecutionListener.class})
+public class SpringConcurrencyTest {
+    private static final String REQUEST_ID_HEADER = "x-request-id";
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 100;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockLambdaContext lambdaContext;
+
+    @Autowired
+    private SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
+
+    @Test
+    public void headers_concurrentRequests_echoOwnHeader() throws Exception {
+        runConcurrently((thread, i) -> {
+            String id = thread + "-" + i;
+            AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/servlet-headers", "GET")
+                    .json()
+                    .header(REQUEST_ID_HEADER, id)
+                    .build();
+
+            AwsProxyResponse response = handler.proxy(request, lambdaContext);
+            assertEquals(200, response.getStatusCode());
+            MapResponseModel model = objectMapper.readValue(response.getBody(), MapResponseModel.class);
+            assertEquals(id, model.getValues().get(REQUEST_ID_HEADER));
+        });
+    }
+
+    @Test
+    public void authorizer_concurrentRequests_echoOwnPrincipal() throws Exception {
+        runConcurrently((thread, i) -> {
+            String principal = "principal-" + thread + "-" + i;
+            AwsProxyRequest request = new AwsProxyRequestBuilder("/echo/authorizer-principal", "GET")
+                    .json()
+                    .authorizerPrincipal(principal)
+                    .build();
+
+            AwsProxyResponse response = handler.proxy(request, lambdaContext);
+            assertEquals(200, response.getStatusCode());
+            assertEquals(principal, objectMapper.readValue(response.getBody(), SingleValueModel.class).getValue());
+        });
+    }
+
+    private static void runConcurrently(RequestTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                results.add(executor.submit((Callable<Void>) () -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        task.run(thread, i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface RequestTask {
+        void run(int thread, int i) throws Exception;
+    }
+}
@@ -0,0 +1,78 @@
+package com.amazonaws.serverless.proxy.spring;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.StartupTimeline;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.internal.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyServletContext;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockCheckpoint;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.spring.LambdaSpringApplicationInitializer.StartupPhase;
+import com.amazonaws.serverless.proxy.spring.echoapp.EchoSpringAppConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpringInitializationTest {
+    @Before
+    public void clearServletContextCache() {
+        AwsProxyServletContext.clearServletContextCache();
+    }
+
+    @Test
+    public void initialize_beforeFirstRequest_startupPhasesTimed() throws ContainerInitializationException {
+        // requests from other tests may already have logged the timeline of this JVM
+        StartupTimeline.getInstance().clear();
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler = SpringLambdaContainerHandler.getAwsProxyHandler(EchoSpringAppConfig.class);
+        for (StartupPhase phase : StartupPhase.values()) {
+            assertEquals(0, handler.getStartupNanos(phase));
+        }
+
+        handler.initialize();
+
+        for (StartupPhase phase : StartupPhase.values()) {
+            assertTrue(phase.name(), handler.getStartupNanos(phase) > 0);
+        }
+        assertTrue(StartupTimeline.getInstance().getSteps().stream().anyMatch(s -> "spring.singletons".equals(s.getName())));
+    }
+
+    @Test
+    public void initializedHandler_firstRequest_servedWithoutRestart() throws ContainerInitializationException {
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler
+                = SpringLambdaContainerHandler.getInitializedAwsProxyHandler(EchoSpringAppConfig.class);
+        long dispatcherNanos = handler.getStartupNanos(StartupPhase.DISPATCHER_SERVLET);
+        assertTrue(dispatcherNanos > 0);
+
+        AwsProxyResponse output = handler.proxy(new AwsProxyRequestBuilder("/echo/status-code", "GET")
+                                                        .queryString("status", "201")
+                                                        .build(), new MockLambdaContext());
+        assertEquals(201, output.getStatusCode());
+        assertEquals(dispatcherNanos, handler.getStartupNanos(StartupPhase.DISPATCHER_SERVLET));
+    }
+
+    @Test
+    public void checkpoint_beforeFirstRequest_applicationStartedAndServedAfterRestore() throws ContainerInitializationException {
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler = SpringLambdaContainerHandler.getAwsProxyHandler(EchoSpringAppConfig.class);
+        handler.setCheckpointWarmupRoutes(true);
+
+        new MockCheckpoint().register(handler).checkpointAndRestore();
+        long dispatcherNanos = handler.getStartupNanos(StartupPhase.DISPATCHER_SERVLET);
+        assertTrue(dispatcherNanos > 0);
+
+        AwsProxyResponse output = handler.proxy(new AwsProxyRequestBuilder("/echo/status-code", "GET")
+                                                        .queryString("status", "201")
+                                                        .build(), new MockLambdaContext());
+        assertEquals(201, output.getStatusCode());
+        assertEquals(dispatcherNanos, handler.getStartupNanos(StartupPhase.DISPATCHER_SERVLET));
+    }
+
+    @Test(expected = ContainerInitializationException.class)
+    public void activateSpringProfiles_afterInitialize_throws() throws ContainerInitializationException {
+        SpringLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler
+                = SpringLambdaContainerHandler.getInitializedAwsProxyHandler(EchoSpringAppConfig.class);
+
+        handler.activateSpringProfiles("override");
+    }
+}